@@ -0,0 +1,242 @@
+package com.joshuadamian.neat.algorithm;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.genome.genes.nodegene.HiddenNode;
+import com.joshuadamian.neat.core.genome.genes.nodegene.NodeGene;
+import com.joshuadamian.neat.core.population.Population;
+import com.joshuadamian.neat.core.population.PopulationStore;
+import com.joshuadamian.neat.util.GenomeTranslator;
+import com.joshuadamian.neat.util.MigrationChannel;
+import com.joshuadamian.neat.util.EvolutionContext;
+
+import java.io.*;
+import java.util.*;
+
+// One island of an island model spread over several processes. The island evolves its own population and
+// every migrationInterval generations sends its best genomes to the islands in Config.islandPeers, encoded
+// as the origins of their hidden nodes followed by a population store. Migrants that arrived in the meantime replace the worst genomes before the next
+// speciation; no island waits for another. Give every process its own seed.
+public class DistributedIsland implements AutoCloseable {
+
+    private Config config;
+    private Population population;
+    private MigrationChannel channel;
+    private GenomeTranslator genomeTranslator = new GenomeTranslator();
+    private Map<String, EvolutionContext> remoteContexts = new HashMap<>();
+    private int emigrations = 0;
+    private int immigrants = 0;
+    private int droppedBatches = 0;
+
+    public DistributedIsland(Config config) {
+        this(config, config.getSeed());
+    }
+
+    public DistributedIsland(Config config, long seed) {
+        this.config = config;
+        this.population = new Population(config, seed);
+        this.channel = new MigrationChannel(
+                config.getIslandHost(),
+                config.getIslandPort(),
+                config.getIslandPeers(),
+                config.getMigrationConnectTimeout()
+        );
+    }
+
+    public void run() {
+        try {
+            population.evaluatePopulation();
+            population.speciate();
+            for (int i = 0; i < config.getGenerations(); i++) {
+                population.evolve();
+                population.evaluatePopulation();
+                if (population.getGeneration() % Math.max(config.getMigrationInterval(), 1) == 0) {
+                    emigrate();
+                }
+                immigrate();
+                population.speciate();
+                double bestFitness = population.getBestGenome().getFitness();
+                System.out.println("Island: " + channel.getAddress() + " generation: " + population.getGeneration()
+                        + " best fitness: " + bestFitness);
+                if (bestFitness >= config.getTargetFitness()) {
+                    System.out.println("Target fitness reached");
+                    emigrate();
+                    break;
+                }
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    public void emigrate() {
+        ArrayList<Genome> sorted = new ArrayList<>(population.getGenomes());
+        sorted.sort(Comparator.comparingDouble(Genome::getFitness).reversed());
+        List<Genome> migrants = sorted.subList(0, Math.min(config.getMigrationSize(), sorted.size()));
+        PopulationStore store = new PopulationStore(config, population.getContext(), false);
+        store.addAll(migrants);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeOrigins(out, migrants);
+            store.writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode migrants", e);
+        } finally {
+            store.close();
+        }
+        channel.send(population.getGeneration(), bytes.toByteArray());
+        emigrations++;
+    }
+
+    public void immigrate() {
+        List<MigrationChannel.Batch> batches = channel.receive();
+        if (batches.isEmpty()) {
+            return;
+        }
+        int populationId = population.getPopulationId();
+        genomeTranslator.indexPopulation(populationId, population.getGenomes());
+        ArrayList<Genome> arrivals = new ArrayList<>();
+        for (MigrationChannel.Batch batch : batches) {
+            // Each remote island gets a local context, so its node ids are mapped the same way every time.
+            EvolutionContext remoteContext = remoteContexts.computeIfAbsent(
+                    batch.getSender(),
+                    sender -> EvolutionContext.open()
+            );
+            // A batch that does not decode is dropped; one bad peer must not end this island's run.
+            PopulationStore store = null;
+            ArrayList<Genome> batchArrivals = new ArrayList<>();
+            try {
+                byte[] payload = batch.getPayload();
+                ByteArrayInputStream bytes = new ByteArrayInputStream(payload);
+                Map<Integer, GenomeTranslator.NodeOrigin> origins = readOrigins(new DataInputStream(bytes));
+                store = PopulationStore.readFrom(
+                        Arrays.copyOfRange(payload, payload.length - bytes.available(), payload.length),
+                        config,
+                        remoteContext,
+                        false
+                );
+                for (Genome genome : store.getGenomes()) {
+                    batchArrivals.add(genomeTranslator.translate(
+                            genome,
+                            origins,
+                            channel.getAddress(),
+                            population.getContext()
+                    ));
+                }
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Island: " + channel.getAddress() + " dropped migrants from " + batch.getSender()
+                        + ": " + e);
+                droppedBatches++;
+                continue;
+            } finally {
+                if (store != null) {
+                    store.close();
+                }
+            }
+            arrivals.addAll(batchArrivals);
+        }
+        population.immigrate(arrivals);
+        immigrants += arrivals.size();
+    }
+
+    // Each hidden node of the migrants goes out with the island that created it and its id there, so every
+    // island maps it the same way, including the island it came from.
+    private void writeOrigins(DataOutputStream out, List<Genome> migrants) throws IOException {
+        int populationId = population.getPopulationId();
+        Map<Integer, GenomeTranslator.NodeOrigin> origins = new LinkedHashMap<>();
+        Map<String, Integer> islands = new LinkedHashMap<>();
+        for (Genome genome : migrants) {
+            for (NodeGene node : genome.getNodeGenes()) {
+                if (node instanceof HiddenNode && !origins.containsKey(node.getId())) {
+                    GenomeTranslator.NodeOrigin origin = genomeTranslator.getOrigin(
+                            populationId,
+                            channel.getAddress(),
+                            node.getId()
+                    );
+                    origins.put(node.getId(), origin);
+                    islands.putIfAbsent(origin.getIsland(), islands.size());
+                }
+            }
+        }
+        out.writeInt(islands.size());
+        for (String island : islands.keySet()) {
+            out.writeUTF(island);
+        }
+        out.writeInt(origins.size());
+        for (Map.Entry<Integer, GenomeTranslator.NodeOrigin> entry : origins.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(islands.get(entry.getValue().getIsland()));
+            out.writeInt(entry.getValue().getNodeId());
+        }
+    }
+
+    // The counts come off the wire, so they are checked against the bytes left before anything is allocated.
+    private Map<Integer, GenomeTranslator.NodeOrigin> readOrigins(DataInputStream in) throws IOException {
+        int islandCount = in.readInt();
+        if (islandCount < 0 || (long) islandCount * 2 > in.available()) {
+            throw new IOException("Migrant batch claims " + islandCount + " origin islands");
+        }
+        String[] islands = new String[islandCount];
+        for (int i = 0; i < islandCount; i++) {
+            islands[i] = in.readUTF();
+        }
+        int originCount = in.readInt();
+        if (originCount < 0 || (long) originCount * 12 > in.available()) {
+            throw new IOException("Migrant batch claims " + originCount + " node origins");
+        }
+        Map<Integer, GenomeTranslator.NodeOrigin> origins = new HashMap<>(originCount * 2);
+        for (int i = 0; i < originCount; i++) {
+            int nodeId = in.readInt();
+            int island = in.readInt();
+            int originNodeId = in.readInt();
+            if (island < 0 || island >= islandCount) {
+                throw new IOException("Node " + nodeId + " has an unknown origin island: " + island);
+            }
+            origins.put(nodeId, new GenomeTranslator.NodeOrigin(islands[island], originNodeId));
+        }
+        return origins;
+    }
+
+    @Override
+    public void close() {
+        channel.close();
+        for (EvolutionContext remoteContext : remoteContexts.values()) {
+            remoteContext.close();
+        }
+        remoteContexts.clear();
+        population.close();
+    }
+
+    public Population getPopulation() {
+        return population;
+    }
+
+    public MigrationChannel getChannel() {
+        return channel;
+    }
+
+    public String getAddress() {
+        return channel.getAddress();
+    }
+
+    public int getEmigrations() {
+        return emigrations;
+    }
+
+    public int getImmigrants() {
+        return immigrants;
+    }
+
+    public int getDroppedBatches() {
+        return droppedBatches;
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public Genome getBestGenome() {
+        return population.getBestGenome();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.joshuadamian.neat.algorithm;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.population.Population;
+import com.joshuadamian.neat.util.GenomeTranslator;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+public class IslandModel implements AutoCloseable {
+
+    private Config config;
+    private ArrayList<Population> islands = new ArrayList<>();
+    private GenomeTranslator genomeTranslator = new GenomeTranslator();
+    private int generation = 0;
+    private int migrations = 0;
+
+    public IslandModel(Config config) {
+        this.config = config;
+        SplittableRandom seeds = new SplittableRandom(config.getSeed());
+        for (int i = 0; i < config.getNumIslands(); i++) {
+            islands.add(new Population(config, seeds.nextLong()));
+        }
+    }
+
+    // Islands evolve in parallel between migrations. Migration happens while every island is paused, after
+    // the last evaluation of an interval and before the next speciation, so the result does not depend on
+    // the number of threads.
+    public void run() {
+        int threads = config.getIslandThreads() > 0 ? config.getIslandThreads() : islands.size();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            runOnIslands(executor, Population::evaluatePopulation);
+            while (generation < config.getGenerations()) {
+                int interval = Math.min(Math.max(config.getMigrationInterval(), 1), config.getGenerations() - generation);
+                runOnIslands(executor, population -> {
+                    for (int i = 0; i < interval; i++) {
+                        population.speciate();
+                        population.evolve();
+                        population.evaluatePopulation();
+                    }
+                });
+                generation += interval;
+
+                double bestFitness = getBestGenome().getFitness();
+                System.out.println("Generation: " + generation + " best fitness: " + bestFitness);
+                if (bestFitness >= config.getTargetFitness()) {
+                    System.out.println("Target fitness reached");
+                    break;
+                }
+                if (generation < config.getGenerations()) {
+                    migrate();
+                }
+            }
+            runOnIslands(executor, Population::speciate);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void migrate() {
+        int numIslands = islands.size();
+        ArrayList<List<Genome>> emigrants = new ArrayList<>(numIslands);
+        ArrayList<ArrayList<Genome>> immigrants = new ArrayList<>(numIslands);
+        for (Population island : islands) {
+            ArrayList<Genome> sorted = new ArrayList<>(island.getGenomes());
+            sorted.sort(Comparator.comparingDouble(Genome::getFitness).reversed());
+            emigrants.add(sorted.subList(0, Math.min(config.getMigrationSize(), sorted.size())));
+            immigrants.add(new ArrayList<>());
+            genomeTranslator.indexPopulation(island.getPopulationId(), island.getGenomes());
+        }
+
+        for (int source = 0; source < numIslands; source++) {
+            for (int target : config.getMigrationTopology().getTargets(source, numIslands)) {
+                for (Genome genome : emigrants.get(source)) {
+                    immigrants.get(target).add(genomeTranslator.translate(
+                            genome,
+                            islands.get(source).getPopulationId(),
+                            islands.get(target).getContext()
+                    ));
+                }
+            }
+        }
+
+        for (int i = 0; i < numIslands; i++) {
+            islands.get(i).immigrate(immigrants.get(i));
+        }
+        migrations++;
+    }
+
+    private void runOnIslands(ExecutorService executor, Consumer<Population> task) {
+        ArrayList<Callable<Void>> tasks = new ArrayList<>(islands.size());
+        for (Population island : islands) {
+            tasks.add(() -> {
+                task.accept(island);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Island evolution was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Island evolution failed", e.getCause());
+        }
+    }
+
+    public Genome getBestGenome() {
+        Genome bestGenome = null;
+        for (Population island : islands) {
+            Genome islandBest = island.getBestGenome();
+            if (bestGenome == null || islandBest.getFitness() > bestGenome.getFitness()) {
+                bestGenome = islandBest;
+            }
+        }
+        return bestGenome;
+    }
+
+    public ArrayList<Population> getIslands() {
+        return islands;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getMigrations() {
+        return migrations;
+    }
+
+    @Override
+    public void close() {
+        for (Population island : islands) {
+            island.close();
+        }
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.joshuadamian.neat.algorithm;
+
+public enum MigrationTopology {
+    RING,
+    FULLY_CONNECTED;
+
+    public int[] getTargets(int island, int numIslands) {
+        if (numIslands < 2) {
+            return new int[0];
+        }
+        switch (this) {
+            case RING:
+                return new int[]{(island + 1) % numIslands};
+            case FULLY_CONNECTED:
+                int[] targets = new int[numIslands - 1];
+                for (int i = 0, j = 0; i < numIslands; i++) {
+                    if (i != island) {
+                        targets[j++] = i;
+                    }
+                }
+                return targets;
+            default:
+                throw new IllegalArgumentException("Unknown migration topology: " + this);
+        }
+    }
+}
\ No newline at end of file
@@ -6,8 +6,10 @@ import com.joshuadamian.neat.util.GenomeBuilder;
 import com.joshuadamian.neat.core.population.Population;
 
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public class NEATAlgorithm {
+public class NEATAlgorithm implements AutoCloseable {
 
     private Config config;
     private Population population;
@@ -18,15 +20,40 @@ public class NEATAlgorithm {
     }
 
     public void run() {
+        ExecutorService evaluationExecutor = null;
+        if (config.getPipelinedGenerations()) {
+            evaluationExecutor = Executors.newFixedThreadPool(config.getEvaluationThreads() > 0
+                    ? config.getEvaluationThreads()
+                    : Runtime.getRuntime().availableProcessors());
+        }
+        try {
+            run(evaluationExecutor);
+        } finally {
+            if (evaluationExecutor != null) {
+                evaluationExecutor.shutdown();
+            }
+        }
+    }
+
+    private void run(ExecutorService evaluationExecutor) {
         population.evaluatePopulation();
         population.speciate();
         for (int i = 0; i < config.getGenerations(); i++) {
-            population.evolve();
-            population.evaluatePopulation();
-            population.speciate();
+            if (evaluationExecutor != null) {
+                population.evolvePipelined(evaluationExecutor);
+            } else {
+                population.evolve();
+                population.evaluatePopulation();
+                population.speciate();
+            }
             double bestFitness = population.getBestGenome().getFitness();
-            System.out.println("Generation: " + population.getGeneration()
-                    + " best fitness: " + population.getBestGenome().getFitness());
+            String generationLog = "Generation: " + population.getGeneration()
+                    + " best fitness: " + population.getBestGenome().getFitness();
+            if (config.getAdaptiveCompatibilityThreshold()) {
+                generationLog += " species: " + population.getSpecies().size()
+                        + " compatibility threshold: " + population.getThresholdController().getThreshold();
+            }
+            System.out.println(generationLog);
             if (bestFitness >= config.getTargetFitness()) {
                 System.out.println("Target fitness reached");
                 break;
@@ -38,6 +65,11 @@ public class NEATAlgorithm {
         return population;
     }
 
+    @Override
+    public void close() {
+        population.close();
+    }
+
     public Config getConfig() {
         return config;
     }
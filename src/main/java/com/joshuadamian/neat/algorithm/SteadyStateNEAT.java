@@ -0,0 +1,133 @@
+package com.joshuadamian.neat.algorithm;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.population.Population;
+
+import java.util.ArrayList;
+import java.util.concurrent.*;
+
+// Real-time NEAT: evaluation threads never wait for a generation to finish. Each time a genome's evaluation
+// completes, the worst eligible genome is replaced by a new offspring, which goes straight to a free
+// thread. Config.generations counts populationSize evaluations as one generation. With more than one
+// evaluation thread the order of completions, and therefore the run, depends on timing.
+public class SteadyStateNEAT implements AutoCloseable {
+
+    private Config config;
+    private Population population;
+    private long evaluations = 0;
+
+    public SteadyStateNEAT(Config config) {
+        this.config = config;
+        population = new Population(config);
+    }
+
+    public void run() {
+        run(config.getGenerations());
+    }
+
+    public void run(int generations) {
+        int threads = config.getEvaluationThreads() > 0
+                ? config.getEvaluationThreads()
+                : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<Genome> completionService = new ExecutorCompletionService<>(executor);
+        try {
+            if (evaluations == 0) {
+                evaluateAll(completionService);
+                population.startSteadyState();
+            }
+
+            long maxEvaluations = evaluations + (long) generations * config.getPopulationSize();
+            int inFlight = 0;
+            for (int i = 0; i < threads && inFlight < maxEvaluations - evaluations; i++) {
+                Genome offspring = population.replaceWorstGenome();
+                if (offspring == null) {
+                    break;
+                }
+                submit(completionService, offspring);
+                inFlight++;
+            }
+
+            boolean targetReached = false;
+            while (inFlight > 0) {
+                Genome evaluated = take(completionService);
+                inFlight--;
+                population.completeEvaluation(evaluated);
+                evaluations++;
+
+                if (evaluations % config.getPopulationSize() == 0) {
+                    System.out.println("Generation: " + population.getGeneration()
+                            + " best fitness: " + population.getBestGenome().getFitness());
+                }
+                if (!targetReached && evaluated.getFitness() >= config.getTargetFitness()) {
+                    System.out.println("Target fitness reached");
+                    targetReached = true;
+                }
+                if (targetReached || evaluations + inFlight >= maxEvaluations) {
+                    continue;
+                }
+                Genome offspring = population.replaceWorstGenome();
+                if (offspring != null) {
+                    submit(completionService, offspring);
+                    inFlight++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void evaluateAll(CompletionService<Genome> completionService) {
+        for (Genome genome : population.getGenomes()) {
+            genome.materialize();
+            submit(completionService, genome);
+        }
+        for (int i = 0; i < population.getGenomes().size(); i++) {
+            take(completionService);
+        }
+    }
+
+    private void submit(CompletionService<Genome> completionService, Genome genome) {
+        completionService.submit(() -> {
+            genome.calculateFitness();
+            return genome;
+        });
+    }
+
+    private Genome take(CompletionService<Genome> completionService) {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Steady-state evolution was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Genome evaluation failed", e.getCause());
+        }
+    }
+
+    public Population getPopulation() {
+        return population;
+    }
+
+    @Override
+    public void close() {
+        population.close();
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public Genome getBestGenome() {
+        return population.getBestGenome();
+    }
+
+    public ArrayList<Genome> getGenomes() {
+        return population.getGenomes();
+    }
+}
\ No newline at end of file
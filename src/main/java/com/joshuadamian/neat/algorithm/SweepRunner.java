@@ -0,0 +1,303 @@
+package com.joshuadamian.neat.algorithm;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.population.Population;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+// Runs one evolution per config variant in a single JVM. All runs share one work-stealing pool; a task
+// evolves one generation of one run and then queues the run again behind the others, so every run gets
+// its turn. Every checkpointInterval generations the runs still going wait for each other, and only the
+// best keepFraction of them (by best fitness) continue, as in successive halving. Which runs survive only
+// depends on their fitness, not on the number of threads.
+public class SweepRunner {
+
+    public enum Status {
+        RUNNING,
+        STOPPED,
+        COMPLETED,
+        TARGET_REACHED,
+        FAILED
+    }
+
+    private List<Config> variants;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int checkpointInterval = 10;
+    private double keepFraction = 0.5;
+    private Writer resultWriter;
+
+    private ArrayList<Run> runs = new ArrayList<>();
+    private ArrayList<Run> waiting = new ArrayList<>();
+    private int activeRuns;
+    private ForkJoinPool pool;
+    private CountDownLatch done;
+    private Throwable failure;
+    private Exception writeFailure;
+
+    public SweepRunner(List<Config> variants) {
+        this.variants = variants;
+    }
+
+    public SweepRunner setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public SweepRunner setCheckpointInterval(int checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+        return this;
+    }
+
+    public SweepRunner setKeepFraction(double keepFraction) {
+        this.keepFraction = keepFraction;
+        return this;
+    }
+
+    // Receives one CSV line per run at every checkpoint and when the run ends.
+    public SweepRunner setResultWriter(Writer resultWriter) {
+        this.resultWriter = resultWriter;
+        return this;
+    }
+
+    public List<Result> run() {
+        runs.clear();
+        waiting.clear();
+        failure = null;
+        writeFailure = null;
+        for (int i = 0; i < variants.size(); i++) {
+            runs.add(new Run(i, variants.get(i)));
+        }
+        activeRuns = runs.size();
+        done = new CountDownLatch(runs.size());
+        writeLine("run,generation,best_fitness,species,status");
+
+        pool = new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        try {
+            for (Run run : runs) {
+                pool.execute(run::step);
+            }
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sweep was interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        flush();
+        if (failure != null) {
+            throw new IllegalStateException("Sweep run failed", failure);
+        }
+        if (writeFailure instanceof IOException) {
+            throw new UncheckedIOException("Could not write sweep result", (IOException) writeFailure);
+        } else if (writeFailure != null) {
+            throw new IllegalStateException("Could not write sweep result", writeFailure);
+        }
+        return getLeaderboard();
+    }
+
+    public List<Result> getLeaderboard() {
+        ArrayList<Result> leaderboard = new ArrayList<>(runs.size());
+        for (Run run : runs) {
+            leaderboard.add(run.result);
+        }
+        leaderboard.sort(Comparator.comparingDouble(Result::getBestFitness).reversed()
+                .thenComparingInt(Result::getIndex));
+        return leaderboard;
+    }
+
+    private synchronized void reachCheckpoint(Run run) {
+        writeResult(run.result);
+        waiting.add(run);
+        if (waiting.size() == activeRuns) {
+            promote();
+        }
+    }
+
+    // The run is counted out before anything that can throw, so run() never waits for a run that failed here.
+    private synchronized void finish(Run run, Status status) {
+        activeRuns--;
+        done.countDown();
+        try {
+            run.finish(status);
+            writeResult(run.result);
+        } finally {
+            if (!waiting.isEmpty() && waiting.size() == activeRuns) {
+                promote();
+            }
+        }
+    }
+
+    private void promote() {
+        waiting.sort(Comparator.comparingDouble((Run run) -> run.result.bestFitness).reversed()
+                .thenComparingInt(run -> run.result.index));
+        int keep = Math.max(1, (int) Math.ceil(waiting.size() * keepFraction));
+        ArrayList<Run> promoted = new ArrayList<>(waiting.subList(0, keep));
+        ArrayList<Run> stopped = new ArrayList<>(waiting.subList(keep, waiting.size()));
+        waiting.clear();
+        for (Run run : stopped) {
+            finish(run, Status.STOPPED);
+        }
+        for (Run run : promoted) {
+            pool.execute(run::step);
+        }
+    }
+
+    private synchronized void fail(Run run, Throwable throwable) {
+        if (failure == null) {
+            failure = throwable;
+        }
+        finish(run, Status.FAILED);
+    }
+
+    private void writeResult(Result result) {
+        writeLine(result.index + "," + result.generation + "," + result.bestFitness + ","
+                + result.numSpecies + "," + result.status);
+    }
+
+    // Writes are made while runs are being scheduled, so a failing writer is only recorded, and no further lines
+    // are written; run() reports it once every run has ended.
+    private synchronized void writeLine(String line) {
+        if (resultWriter == null || writeFailure != null) {
+            return;
+        }
+        try {
+            resultWriter.write(line);
+            resultWriter.write('\n');
+        } catch (IOException | RuntimeException e) {
+            writeFailure = e;
+        }
+    }
+
+    private synchronized void flush() {
+        if (resultWriter == null || writeFailure != null) {
+            return;
+        }
+        try {
+            resultWriter.flush();
+        } catch (IOException | RuntimeException e) {
+            writeFailure = e;
+        }
+    }
+
+    public List<Config> getVariants() {
+        return variants;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public double getKeepFraction() {
+        return keepFraction;
+    }
+
+    private class Run {
+
+        private Config config;
+        private Population population;
+        private Result result;
+
+        private Run(int index, Config config) {
+            this.config = config;
+            this.result = new Result(index, config);
+        }
+
+        // Evolves one generation and queues the next one, unless the run ends or reaches a checkpoint.
+        private void step() {
+            try {
+                if (population == null) {
+                    population = new Population(config);
+                    population.evaluatePopulation();
+                    population.speciate();
+                } else {
+                    population.evolve();
+                    population.evaluatePopulation();
+                    population.speciate();
+                }
+                result.update(population);
+
+                if (result.bestFitness >= config.getTargetFitness()) {
+                    SweepRunner.this.finish(this, Status.TARGET_REACHED);
+                } else if (result.generation >= config.getGenerations()) {
+                    SweepRunner.this.finish(this, Status.COMPLETED);
+                } else if (result.generation > 0 && checkpointInterval > 0
+                        && result.generation % checkpointInterval == 0) {
+                    reachCheckpoint(this);
+                } else {
+                    pool.execute(this::step);
+                }
+            } catch (Throwable throwable) {
+                fail(this, throwable);
+            }
+        }
+
+        private void finish(Status status) {
+            result.status = status;
+            if (population != null) {
+                population.close();
+                population = null;
+            }
+        }
+    }
+
+    public static class Result {
+
+        private int index;
+        private Config config;
+        private Status status = Status.RUNNING;
+        private int generation = 0;
+        private double bestFitness = 0;
+        private int numSpecies = 0;
+        private Genome bestGenome;
+
+        private Result(int index, Config config) {
+            this.index = index;
+            this.config = config;
+        }
+
+        private void update(Population population) {
+            generation = population.getGeneration();
+            bestGenome = population.getBestGenome();
+            bestFitness = bestGenome.getFitness();
+            numSpecies = population.getSpecies().size();
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Config getConfig() {
+            return config;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public int getGeneration() {
+            return generation;
+        }
+
+        public double getBestFitness() {
+            return bestFitness;
+        }
+
+        public int getNumSpecies() {
+            return numSpecies;
+        }
+
+        public Genome getBestGenome() {
+            return bestGenome;
+        }
+    }
+}
\ No newline at end of file
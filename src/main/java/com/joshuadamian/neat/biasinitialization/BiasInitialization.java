@@ -1,6 +1,14 @@
 package com.joshuadamian.neat.biasinitialization;
 
+import java.util.SplittableRandom;
+
+// The library only draws biases through initializeBias(SplittableRandom). Its default falls back to the no-arg
+// method, which ignores the stream, so a strategy that draws random biases has to override it to keep runs with
+// the same seed reproducible.
 public interface BiasInitialization {
     double initializeBias();
 
+    default double initializeBias(SplittableRandom random) {
+        return initializeBias();
+    }
 }
\ No newline at end of file
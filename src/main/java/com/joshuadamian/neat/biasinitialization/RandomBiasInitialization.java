@@ -1,6 +1,7 @@
 package com.joshuadamian.neat.biasinitialization;
 
 import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomBiasInitialization implements BiasInitialization {
     private double min;
@@ -17,4 +18,9 @@ public class RandomBiasInitialization implements BiasInitialization {
     public double initializeBias() {
         return min + (max - min) * random.nextDouble();
     }
+
+    @Override
+    public double initializeBias(SplittableRandom random) {
+        return min + (max - min) * random.nextDouble();
+    }
 }
\ No newline at end of file
@@ -1,14 +1,20 @@
 package com.joshuadamian.neat.config;
 
 import com.joshuadamian.neat.activationfunction.ActivationFunction;
+import com.joshuadamian.neat.algorithm.MigrationTopology;
 import com.joshuadamian.neat.activationfunction.NEATSigmoid;
 import com.joshuadamian.neat.biasinitialization.BiasInitialization;
 import com.joshuadamian.neat.biasinitialization.ConstantBiasInitialization;
 import com.joshuadamian.neat.fitnessfunction.FitnessFunction;
 import com.joshuadamian.neat.fitnessfunction.XOR;
+import com.joshuadamian.neat.util.InitialConnectivity;
 import com.joshuadamian.neat.weightinitialization.RandomWeightInitialization;
 import com.joshuadamian.neat.weightinitialization.WeightInitialization;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 public class Config {
 
 // --------------------------------------
@@ -18,6 +24,9 @@ public class Config {
     // 1) Input/Output Layer Sizes
     private int inputSize = 2; // Number of inputs in the network
     private int outputSize = 1; // Number of outputs in the network
+    private InitialConnectivity initialConnectivity = InitialConnectivity.FULL; // Which inputs are connected to the outputs in initial genomes
+    private double initialConnectionFraction = 0.5; // Fraction of input to output connections each initial genome gets with PARTIAL connectivity
+    private List<Integer> initialInputs = new ArrayList<>(); // Indices of the inputs connected to every output with LISTED connectivity
 
     // 2) Activation & Fitness Functions
     private ActivationFunction activationFunction = new NEATSigmoid(); // Activation function used in neurons
@@ -34,6 +43,17 @@ public class Config {
     private double c3 = 0.4; // Compatibility coefficient for average weight differences
     private double compatibilityThreshold = 3.0; // Threshold at which genomes are placed into separate species
     private double interspeciesMatingRate = 0.001; // Probability of mating between different species
+    private int speciationThreads = 1; // Number of threads used to speciate; 1 speciates on the calling thread
+    private boolean approximateSpeciation = false; // Only compare genomes against candidate species found by MinHash/LSH
+    private int lshBands = 16; // Number of LSH bands, more bands find more candidate species at a higher cost
+    private int lshRowsPerBand = 4; // MinHash rows per LSH band, more rows only pair genomes with more similar genes
+    private boolean parentSpeciesFirst = false; // Test the species of a genome's parent before scanning all species
+    private boolean adaptiveCompatibilityThreshold = false; // Adjust the compatibility threshold each generation to keep the species count in the target range
+    private int targetSpeciesMin = 5; // Lower end of the target species count range
+    private int targetSpeciesMax = 15; // Upper end of the target species count range
+    private double thresholdAdjustmentStep = 0.3; // Maximum change of the compatibility threshold per generation
+    private double thresholdDamping = 0.5; // Share of the previous adjustment kept in the next one
+    private double minCompatibilityThreshold = 0.1; // The adaptive threshold never drops below this value
 
     // 5) Mutation Rates
     private double mutationRate = 1.0; // Overall rate at which genomes undergo mutation
@@ -63,6 +83,37 @@ public class Config {
     private double minWeight = -4.0; // Minimum allowed weight value
     private double maxWeight = 4.0; // Maximum allowed weight value
 
+    // 10) Randomness
+    private long seed = new Random().nextLong(); // Root seed every random draw of a run is derived from
+
+    // 11) Memory Management
+    private boolean genePooling = false; // Recycle the genes of discarded genomes into the next generation
+    private boolean offHeapStorage = false; // Keep the columns of population stores in direct buffers outside the heap
+    private int bootstrapThreads = 1; // Threads filling in the genes and weights of the initial population; 1 uses the calling thread
+
+    // 12) Evaluation
+    private boolean compiledEvaluation = false; // Evaluate genomes through an evaluation plan shared by all genomes with the same topology
+    private boolean pipelinedGenerations = false; // Evaluate and speciate offspring while the rest of the generation is still being bred
+    private double simplificationEpsilon = 0.0; // Connections weaker than this are dropped by Genome.simplify(); 0 keeps outputs the same up to rounding
+
+    // 13) Lineage
+    private boolean lineageLogging = false; // Record parents and mutation deltas of every genome in the population's lineage log
+
+    // 14) Island Model
+    private int numIslands = 4; // Number of populations evolved side by side by the island model
+    private int islandThreads = 0; // Threads used to evolve the islands; 0 uses one thread per island
+    private int migrationInterval = 10; // Generations between migrations
+    private int migrationSize = 2; // Number of best genomes each island sends to each of its neighbours
+    private MigrationTopology migrationTopology = MigrationTopology.RING; // Which islands send migrants to which
+    private String islandHost = "localhost"; // Host other processes reach this island on
+    private int islandPort = 0; // Port this island listens for migrants on; 0 picks a free port
+    private List<String> islandPeers = new ArrayList<>(); // host:port of the islands in other processes to send migrants to
+    private int migrationConnectTimeout = 1000; // Milliseconds to wait when connecting to another island
+
+    // 15) Steady State
+    private int evaluationThreads = 0; // Threads evaluating genomes in steady-state and pipelined evolution; 0 uses one per processor
+    private int steadyStateMinimumAge = 0; // Replacements a genome survives before it can be replaced; genomes being evaluated are never replaced
+
     private boolean connectBias = true;
 
     public Config() {
@@ -72,8 +123,207 @@ public class Config {
         return this.connectBias;
     }
 
-    public void setConnectBias(boolean connectBias) {
+    public Config setConnectBias(boolean connectBias) {
         this.connectBias = connectBias;
+        return this;
+    }
+
+    public Config setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Config setGenePooling(boolean genePooling) {
+        this.genePooling = genePooling;
+        return this;
+    }
+
+    public boolean getGenePooling() {
+        return genePooling;
+    }
+
+    public Config setOffHeapStorage(boolean offHeapStorage) {
+        this.offHeapStorage = offHeapStorage;
+        return this;
+    }
+
+    public boolean getOffHeapStorage() {
+        return offHeapStorage;
+    }
+
+    public Config setCompiledEvaluation(boolean compiledEvaluation) {
+        this.compiledEvaluation = compiledEvaluation;
+        return this;
+    }
+
+    public boolean getCompiledEvaluation() {
+        return compiledEvaluation;
+    }
+
+    public Config setPipelinedGenerations(boolean pipelinedGenerations) {
+        this.pipelinedGenerations = pipelinedGenerations;
+        return this;
+    }
+
+    public boolean getPipelinedGenerations() {
+        return pipelinedGenerations;
+    }
+
+    public Config setLineageLogging(boolean lineageLogging) {
+        this.lineageLogging = lineageLogging;
+        return this;
+    }
+
+    public boolean getLineageLogging() {
+        return lineageLogging;
+    }
+
+    public Config setNumIslands(int numIslands) {
+        this.numIslands = numIslands;
+        return this;
+    }
+
+    public int getNumIslands() {
+        return numIslands;
+    }
+
+    public Config setIslandThreads(int islandThreads) {
+        this.islandThreads = islandThreads;
+        return this;
+    }
+
+    public int getIslandThreads() {
+        return islandThreads;
+    }
+
+    public Config setMigrationInterval(int migrationInterval) {
+        this.migrationInterval = migrationInterval;
+        return this;
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    public Config setMigrationSize(int migrationSize) {
+        this.migrationSize = migrationSize;
+        return this;
+    }
+
+    public int getMigrationSize() {
+        return migrationSize;
+    }
+
+    public Config setMigrationTopology(MigrationTopology migrationTopology) {
+        this.migrationTopology = migrationTopology;
+        return this;
+    }
+
+    public MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    public Config setIslandHost(String islandHost) {
+        this.islandHost = islandHost;
+        return this;
+    }
+
+    public String getIslandHost() {
+        return islandHost;
+    }
+
+    public Config setIslandPort(int islandPort) {
+        this.islandPort = islandPort;
+        return this;
+    }
+
+    public int getIslandPort() {
+        return islandPort;
+    }
+
+    public Config setIslandPeers(List<String> islandPeers) {
+        this.islandPeers = islandPeers;
+        return this;
+    }
+
+    public List<String> getIslandPeers() {
+        return islandPeers;
+    }
+
+    public Config setMigrationConnectTimeout(int migrationConnectTimeout) {
+        this.migrationConnectTimeout = migrationConnectTimeout;
+        return this;
+    }
+
+    public int getMigrationConnectTimeout() {
+        return migrationConnectTimeout;
+    }
+
+    public Config setSimplificationEpsilon(double simplificationEpsilon) {
+        this.simplificationEpsilon = simplificationEpsilon;
+        return this;
+    }
+
+    public double getSimplificationEpsilon() {
+        return simplificationEpsilon;
+    }
+
+    public Config setBootstrapThreads(int bootstrapThreads) {
+        this.bootstrapThreads = bootstrapThreads;
+        return this;
+    }
+
+    public int getBootstrapThreads() {
+        return bootstrapThreads;
+    }
+
+    public Config setEvaluationThreads(int evaluationThreads) {
+        this.evaluationThreads = evaluationThreads;
+        return this;
+    }
+
+    public int getEvaluationThreads() {
+        return evaluationThreads;
+    }
+
+    public Config setSteadyStateMinimumAge(int steadyStateMinimumAge) {
+        this.steadyStateMinimumAge = steadyStateMinimumAge;
+        return this;
+    }
+
+    public int getSteadyStateMinimumAge() {
+        return steadyStateMinimumAge;
+    }
+
+    public Config setInitialConnectivity(InitialConnectivity initialConnectivity) {
+        this.initialConnectivity = initialConnectivity;
+        return this;
+    }
+
+    public InitialConnectivity getInitialConnectivity() {
+        return initialConnectivity;
+    }
+
+    public Config setInitialConnectionFraction(double initialConnectionFraction) {
+        this.initialConnectionFraction = initialConnectionFraction;
+        return this;
+    }
+
+    public double getInitialConnectionFraction() {
+        return initialConnectionFraction;
+    }
+
+    public Config setInitialInputs(List<Integer> initialInputs) {
+        this.initialInputs = initialInputs;
+        return this;
+    }
+
+    public List<Integer> getInitialInputs() {
+        return initialInputs;
     }
 
     public Config setInputSize(int inputsize) {
@@ -175,6 +425,105 @@ public class Config {
         return interspeciesMatingRate;
     }
 
+    public Config setSpeciationThreads(int speciationThreads) {
+        this.speciationThreads = speciationThreads;
+        return this;
+    }
+
+    public int getSpeciationThreads() {
+        return speciationThreads;
+    }
+
+    public Config setApproximateSpeciation(boolean approximateSpeciation) {
+        this.approximateSpeciation = approximateSpeciation;
+        return this;
+    }
+
+    public boolean getApproximateSpeciation() {
+        return approximateSpeciation;
+    }
+
+    public Config setLshBands(int lshBands) {
+        this.lshBands = lshBands;
+        return this;
+    }
+
+    public int getLshBands() {
+        return lshBands;
+    }
+
+    public Config setLshRowsPerBand(int lshRowsPerBand) {
+        this.lshRowsPerBand = lshRowsPerBand;
+        return this;
+    }
+
+    public int getLshRowsPerBand() {
+        return lshRowsPerBand;
+    }
+
+    public Config setParentSpeciesFirst(boolean parentSpeciesFirst) {
+        this.parentSpeciesFirst = parentSpeciesFirst;
+        return this;
+    }
+
+    public boolean getParentSpeciesFirst() {
+        return parentSpeciesFirst;
+    }
+
+    public Config setAdaptiveCompatibilityThreshold(boolean adaptiveCompatibilityThreshold) {
+        this.adaptiveCompatibilityThreshold = adaptiveCompatibilityThreshold;
+        return this;
+    }
+
+    public boolean getAdaptiveCompatibilityThreshold() {
+        return adaptiveCompatibilityThreshold;
+    }
+
+    public Config setTargetSpeciesMin(int targetSpeciesMin) {
+        this.targetSpeciesMin = targetSpeciesMin;
+        return this;
+    }
+
+    public int getTargetSpeciesMin() {
+        return targetSpeciesMin;
+    }
+
+    public Config setTargetSpeciesMax(int targetSpeciesMax) {
+        this.targetSpeciesMax = targetSpeciesMax;
+        return this;
+    }
+
+    public int getTargetSpeciesMax() {
+        return targetSpeciesMax;
+    }
+
+    public Config setThresholdAdjustmentStep(double thresholdAdjustmentStep) {
+        this.thresholdAdjustmentStep = thresholdAdjustmentStep;
+        return this;
+    }
+
+    public double getThresholdAdjustmentStep() {
+        return thresholdAdjustmentStep;
+    }
+
+    public Config setThresholdDamping(double thresholdDamping) {
+        this.thresholdDamping = thresholdDamping;
+        return this;
+    }
+
+    public double getThresholdDamping() {
+        return thresholdDamping;
+    }
+
+    public Config setMinCompatibilityThreshold(double minCompatibilityThreshold) {
+        this.minCompatibilityThreshold = minCompatibilityThreshold;
+        return this;
+    }
+
+    public double getMinCompatibilityThreshold() {
+        return minCompatibilityThreshold;
+    }
+
     public Config setMutationRate(double mutationRate) {
         this.mutationRate = mutationRate;
         return this;
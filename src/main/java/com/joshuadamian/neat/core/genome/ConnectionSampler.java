@@ -0,0 +1,201 @@
+package com.joshuadamian.neat.core.genome;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
+import com.joshuadamian.neat.core.genome.genes.nodegene.NodeGene;
+import com.joshuadamian.neat.core.genome.genes.nodegene.OutputNode;
+
+import java.util.*;
+
+// Picks the endpoints of a new connection. A genome keeps its sampler between mutations and reports every node and
+// connection it adds, so the targets, the out-adjacency of each source and the free slot counts stay up to date
+// instead of being rebuilt from the node list on every sample. Removing genes means building a new sampler.
+public class ConnectionSampler {
+
+    private ArrayList<NodeGene> targets = new ArrayList<>();
+    private ArrayList<NodeGene> sources = new ArrayList<>();
+    private Map<NodeGene, Set<NodeGene>> outAdjacency = new HashMap<>();
+    private long totalFreeSlots = 0;
+    private double recurrentConnectionRate;
+
+    // Scratch sets, cleared on every sample.
+    private Set<NodeGene> exhaustedSources = new HashSet<>();
+    private Set<NodeGene> ancestors = new HashSet<>();
+    private ArrayDeque<NodeGene> stack = new ArrayDeque<>();
+
+    private NodeGene fromNode;
+    private NodeGene toNode;
+    private boolean recurrent;
+
+    public ConnectionSampler(List<NodeGene> nodes, Config config) {
+        this.recurrentConnectionRate = config.getAllowRecurrentConnections() ? config.getRecurrentConnectionRate() : 0;
+        for (NodeGene node : nodes) {
+            if (node.acceptsIncomingConnections()) {
+                targets.add(node);
+            }
+        }
+        for (NodeGene node : nodes) {
+            if (!isSource(node)) {
+                continue;
+            }
+            Set<NodeGene> existingTargets = new HashSet<>();
+            for (ConnectionGene connection : node.getOutgoingConnections()) {
+                existingTargets.add(connection.getOutNode());
+            }
+            sources.add(node);
+            outAdjacency.put(node, existingTargets);
+            totalFreeSlots += targets.size() - existingTargets.size();
+        }
+    }
+
+    public void addNode(NodeGene node) {
+        if (node.acceptsIncomingConnections()) {
+            targets.add(node);
+            totalFreeSlots += sources.size();
+        }
+        if (isSource(node)) {
+            sources.add(node);
+            outAdjacency.put(node, new HashSet<>());
+            totalFreeSlots += targets.size();
+        }
+    }
+
+    public void addConnection(NodeGene fromNode, NodeGene toNode) {
+        Set<NodeGene> existingTargets = outAdjacency.get(fromNode);
+        if (existingTargets != null && existingTargets.add(toNode)) {
+            totalFreeSlots--;
+        }
+    }
+
+    public boolean sample(SplittableRandom random) {
+        exhaustedSources.clear();
+        long remainingSlots = totalFreeSlots;
+        while (remainingSlots > 0) {
+            NodeGene source = pickSource(remainingSlots, random);
+            if (pickTarget(source, random)) {
+                return true;
+            }
+            exhaustedSources.add(source);
+            remainingSlots -= freeSlots(source);
+        }
+        return false;
+    }
+
+    private boolean isSource(NodeGene node) {
+        if (!node.acceptsOutgoingConnections()) {
+            return false;
+        }
+        return !(node instanceof OutputNode) || recurrentConnectionRate > 0;
+    }
+
+    private int freeSlots(NodeGene source) {
+        return targets.size() - outAdjacency.get(source).size();
+    }
+
+    private NodeGene pickSource(long remainingSlots, SplittableRandom random) {
+        long pick = random.nextLong(remainingSlots);
+        NodeGene last = null;
+        for (NodeGene source : sources) {
+            if (exhaustedSources.contains(source)) {
+                continue;
+            }
+            int free = freeSlots(source);
+            if (free <= 0) {
+                continue;
+            }
+            last = source;
+            pick -= free;
+            if (pick < 0) {
+                return source;
+            }
+        }
+        return last;
+    }
+
+    private boolean pickTarget(NodeGene source, SplittableRandom random) {
+        Set<NodeGene> existingTargets = outAdjacency.get(source);
+        boolean alwaysRecurrent = source instanceof OutputNode;
+        boolean ancestorsCollected = false;
+        ArrayList<NodeGene> candidates = new ArrayList<>();
+        ArrayList<Boolean> candidateRecurrent = new ArrayList<>();
+        int feedForwardCandidates = 0;
+
+        for (NodeGene target : targets) {
+            if (existingTargets.contains(target)) {
+                continue;
+            }
+            boolean isRecurrent;
+            if (alwaysRecurrent || target == source) {
+                isRecurrent = true;
+            } else if (target.getTopologicalOrder() > source.getTopologicalOrder()) {
+                isRecurrent = false;
+            } else {
+                if (!ancestorsCollected) {
+                    collectAncestors(source);
+                    ancestorsCollected = true;
+                }
+                isRecurrent = ancestors.contains(target);
+            }
+            if (isRecurrent && recurrentConnectionRate <= 0) {
+                continue;
+            }
+            candidates.add(target);
+            candidateRecurrent.add(isRecurrent);
+            if (!isRecurrent) {
+                feedForwardCandidates++;
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return false;
+        }
+
+        double recurrentWeight = Math.min(recurrentConnectionRate, 1.0);
+        double totalWeight = feedForwardCandidates + recurrentWeight * (candidates.size() - feedForwardCandidates);
+        double pick = random.nextDouble() * totalWeight;
+        int selected = candidates.size() - 1;
+        for (int i = 0; i < candidates.size(); i++) {
+            pick -= candidateRecurrent.get(i) ? recurrentWeight : 1.0;
+            if (pick < 0) {
+                selected = i;
+                break;
+            }
+        }
+
+        fromNode = source;
+        toNode = candidates.get(selected);
+        recurrent = candidateRecurrent.get(selected);
+        return true;
+    }
+
+    private void collectAncestors(NodeGene node) {
+        ancestors.clear();
+        stack.clear();
+        stack.push(node);
+
+        while (!stack.isEmpty()) {
+            NodeGene currentNode = stack.pop();
+            if (!currentNode.acceptsIncomingConnections()) {
+                continue;
+            }
+            for (ConnectionGene connection : currentNode.getIncomingConnections()) {
+                NodeGene previousNode = connection.getInNode();
+                if (!connection.isRecurrent() && ancestors.add(previousNode)) {
+                    stack.push(previousNode);
+                }
+            }
+        }
+    }
+
+    public NodeGene getFromNode() {
+        return fromNode;
+    }
+
+    public NodeGene getToNode() {
+        return toNode;
+    }
+
+    public boolean isRecurrent() {
+        return recurrent;
+    }
+}
\ No newline at end of file
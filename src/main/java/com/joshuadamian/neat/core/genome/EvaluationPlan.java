@@ -0,0 +1,706 @@
+package com.joshuadamian.neat.core.genome;
+
+import com.joshuadamian.neat.activationfunction.ActivationFunction;
+import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
+import com.joshuadamian.neat.core.genome.genes.nodegene.*;
+
+import java.util.*;
+
+public class EvaluationPlan {
+
+    private int inputCount;
+    private boolean compiled;
+    private int slotCount;
+    private int connectionCount;
+
+    // A step either sets an input slot (stepInput >= 0) or activates stepSlot from the terms
+    // termStart[step]..termStart[step + 1]. A term source >= 0 is a state slot, < 0 is input -(source + 1).
+    private int[] stepSlot;
+    private int[] stepInput;
+    private int[] termStart;
+    private ActivationFunction[] stepFunction;
+    private int[] termSource;
+    private int[] termConnection;
+    private int[] outputSlots;
+    private int[] biasSlots;
+    private double[] stepOffset; // Constant added to the sum of each step, only set on simplified plans
+
+    // The same plan indexed by input for evaluateSparse(): the activation steps in order, each with the
+    // terms that do not read an input, and per input the slot it sets and the terms that read it.
+    private boolean sparseInputs;
+    private int[] activationSteps;
+    private int[] innerTermStart;
+    private int[] innerTermSource;
+    private int[] innerTermConnection;
+    private int[] inputSlots;
+    private int[] inputTermStart;
+    private int[] inputTermStep;
+    private int[] inputTermConnection;
+
+    private EvaluationPlan(int inputCount) {
+        this.inputCount = inputCount;
+        this.compiled = false;
+    }
+
+    // Compiles a plan that is not shared through a TopologyInterner.
+    public static EvaluationPlan compile(List<NodeGene> nodes, List<ConnectionGene> connections, int inputCount) {
+        Map<NodeGene, Integer> nodeIndex = new IdentityHashMap<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            nodeIndex.put(nodes.get(i), i);
+        }
+        Map<ConnectionGene, Integer> connectionIndex = new IdentityHashMap<>(connections.size());
+        for (int i = 0; i < connections.size(); i++) {
+            connectionIndex.put(connections.get(i), i);
+        }
+        return compile(nodes, connections, inputCount, nodeIndex, connectionIndex);
+    }
+
+    public static EvaluationPlan compile(List<NodeGene> nodes, List<ConnectionGene> connections,
+                                         int inputCount, Map<NodeGene, Integer> nodeIndex,
+                                         Map<ConnectionGene, Integer> connectionIndex) {
+        Compiler compiler = new Compiler(nodes, nodeIndex, connectionIndex);
+        if (!compiler.run(inputCount)) {
+            return new EvaluationPlan(inputCount);
+        }
+
+        EvaluationPlan plan = new EvaluationPlan(inputCount);
+        plan.compiled = true;
+        plan.slotCount = nodes.size();
+        plan.connectionCount = connections.size();
+        plan.stepSlot = toArray(compiler.stepSlot);
+        plan.stepInput = toArray(compiler.stepInput);
+        plan.termStart = toArray(compiler.termStart);
+        plan.stepFunction = compiler.stepFunction.toArray(new ActivationFunction[0]);
+        plan.termSource = toArray(compiler.termSource);
+        plan.termConnection = toArray(compiler.termConnection);
+        plan.outputSlots = compiler.outputSlots;
+        plan.biasSlots = toArray(compiler.biasSlots);
+        boolean[] inputSlot = new boolean[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            inputSlot[i] = nodes.get(i) instanceof InputNode;
+        }
+        plan.indexInputTerms(inputSlot);
+        return plan;
+    }
+
+    private void indexInputTerms(boolean[] inputSlot) {
+        int activationCount = 0;
+        int inputTermCount = 0;
+        for (int step = 0; step < stepSlot.length; step++) {
+            if (stepInput[step] < 0) {
+                activationCount++;
+            }
+        }
+        for (int term = 0; term < termSource.length; term++) {
+            int source = termSource[term];
+            if (source < 0) {
+                inputTermCount++;
+            } else if (inputSlot[source]) {
+                // Input slots are only written in input order, so a term reading one depends on that order.
+                return;
+            }
+        }
+
+        activationSteps = new int[activationCount];
+        innerTermStart = new int[activationCount + 1];
+        innerTermSource = new int[termSource.length - inputTermCount];
+        innerTermConnection = new int[innerTermSource.length];
+        inputSlots = new int[inputCount];
+        Arrays.fill(inputSlots, -1);
+        inputTermStart = new int[inputCount + 1];
+        inputTermStep = new int[inputTermCount];
+        inputTermConnection = new int[inputTermCount];
+
+        for (int term = 0; term < termSource.length; term++) {
+            if (termSource[term] < 0) {
+                inputTermStart[-(termSource[term] + 1) + 1]++;
+            }
+        }
+        for (int i = 0; i < inputCount; i++) {
+            inputTermStart[i + 1] += inputTermStart[i];
+        }
+        int[] nextInputTerm = Arrays.copyOf(inputTermStart, inputCount);
+        int activation = 0;
+        int innerTerm = 0;
+        for (int step = 0; step < stepSlot.length; step++) {
+            if (stepInput[step] >= 0) {
+                inputSlots[stepInput[step]] = stepSlot[step];
+                continue;
+            }
+            activationSteps[activation] = step;
+            innerTermStart[activation] = innerTerm;
+            for (int term = termStart[step]; term < termStart[step + 1]; term++) {
+                int source = termSource[term];
+                if (source >= 0) {
+                    innerTermSource[innerTerm] = source;
+                    innerTermConnection[innerTerm] = termConnection[term];
+                    innerTerm++;
+                } else {
+                    int input = -(source + 1);
+                    inputTermStep[nextInputTerm[input]] = activation;
+                    inputTermConnection[nextInputTerm[input]] = termConnection[term];
+                    nextInputTerm[input]++;
+                }
+            }
+            activation++;
+        }
+        innerTermStart[activationCount] = innerTerm;
+        sparseInputs = true;
+    }
+
+    public double[] evaluate(double[] inputs, double[] weights, double[] state) {
+        for (int step = 0; step < stepSlot.length; step++) {
+            int input = stepInput[step];
+            if (input >= 0) {
+                state[stepSlot[step]] = inputs[input];
+                continue;
+            }
+            double sum = stepOffset != null ? stepOffset[step] : 0;
+            for (int term = termStart[step]; term < termStart[step + 1]; term++) {
+                int source = termSource[term];
+                double value = source >= 0 ? state[source] : inputs[-(source + 1)];
+                sum += value * weights[termConnection[term]];
+            }
+            state[stepSlot[step]] = stepFunction[step].apply(sum);
+        }
+
+        double[] outputs = new double[outputSlots.length];
+        for (int i = 0; i < outputSlots.length; i++) {
+            outputs[i] = state[outputSlots[i]];
+        }
+        return outputs;
+    }
+
+    // Evaluates with only the inputs listed in inputIndices set, all others zero. Inputs that are not listed
+    // cost nothing; the outputs equal evaluate() on the dense vector up to the order the sum of each node
+    // is added up in. Only possible when supportsSparseInputs().
+    public double[] evaluateSparse(int[] inputIndices, double[] inputValues, double[] weights, double[] state) {
+        checkSparseInputs(inputIndices, inputValues, inputCount);
+        double[] inputSums = new double[activationSteps.length];
+        if (stepOffset != null) {
+            for (int activation = 0; activation < activationSteps.length; activation++) {
+                inputSums[activation] = stepOffset[activationSteps[activation]];
+            }
+        }
+        for (int i = 0; i < inputIndices.length; i++) {
+            double value = inputValues[i];
+            if (value == 0) {
+                continue;
+            }
+            int input = inputIndices[i];
+            if (inputSlots[input] >= 0) {
+                state[inputSlots[input]] = value;
+            }
+            for (int term = inputTermStart[input]; term < inputTermStart[input + 1]; term++) {
+                inputSums[inputTermStep[term]] += value * weights[inputTermConnection[term]];
+            }
+        }
+
+        for (int activation = 0; activation < activationSteps.length; activation++) {
+            double sum = inputSums[activation];
+            for (int term = innerTermStart[activation]; term < innerTermStart[activation + 1]; term++) {
+                sum += state[innerTermSource[term]] * weights[innerTermConnection[term]];
+            }
+            int step = activationSteps[activation];
+            state[stepSlot[step]] = stepFunction[step].apply(sum);
+        }
+
+        double[] outputs = new double[outputSlots.length];
+        for (int i = 0; i < outputSlots.length; i++) {
+            outputs[i] = state[outputSlots[i]];
+        }
+        return outputs;
+    }
+
+    // Builds a network for one genome's weights and bias values that computes the same outputs with fewer
+    // steps and terms. Its plan has one weight per term, so it can not be shared with other genomes.
+    public SimplifiedNetwork simplify(double[] weights, double[] state, double weightEpsilon,
+                                   SimplifiedNetwork.Report report) {
+        if (!compiled) {
+            throw new IllegalStateException("Only compiled evaluation plans can be simplified");
+        }
+        Simplifier simplifier = new Simplifier(this, weights, state, report);
+        simplifier.simplifyTerms(weightEpsilon);
+        simplifier.markLiveSteps();
+        return simplifier.build();
+    }
+
+    public double[] gatherWeights(List<ConnectionGene> connections) {
+        double[] weights = new double[connectionCount];
+        for (int i = 0; i < connectionCount; i++) {
+            weights[i] = connections.get(i).getWeight();
+        }
+        return weights;
+    }
+
+    public double[] gatherState(List<NodeGene> nodes) {
+        double[] state = new double[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            state[i] = nodes.get(i).getLastOutput();
+        }
+        return state;
+    }
+
+    public void scatterState(double[] state, List<NodeGene> nodes) {
+        for (int i = 0; i < slotCount; i++) {
+            nodes.get(i).setLastOutput(state[i]);
+        }
+    }
+
+    public void resetState(double[] state) {
+        double[] biases = new double[biasSlots.length];
+        for (int i = 0; i < biasSlots.length; i++) {
+            biases[i] = state[biasSlots[i]];
+        }
+        Arrays.fill(state, 0.0);
+        for (int i = 0; i < biasSlots.length; i++) {
+            state[biasSlots[i]] = biases[i];
+        }
+    }
+
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    public boolean supportsSparseInputs() {
+        return sparseInputs;
+    }
+
+    public int getNumSteps() {
+        return compiled ? stepSlot.length : 0;
+    }
+
+    public int getNumTerms() {
+        return compiled ? termSource.length : 0;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    // Indices must be strictly increasing and below the input size, so no input is given twice.
+    static void checkSparseInputs(int[] inputIndices, double[] inputValues, int inputSize) {
+        if (inputIndices.length != inputValues.length) {
+            throw new IllegalArgumentException("Got " + inputIndices.length + " input indices but "
+                    + inputValues.length + " input values");
+        }
+        int previous = -1;
+        for (int index : inputIndices) {
+            if (index < 0 || index >= inputSize) {
+                throw new IllegalArgumentException("Input index " + index + " is outside [0, " + inputSize + ")");
+            }
+            if (index <= previous) {
+                throw new IllegalArgumentException("Input indices must be strictly increasing but " + index
+                        + " follows " + previous);
+            }
+            previous = index;
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    // Rewrites the terms of every activation step and keeps only the steps an output depends on:
+    // - terms reading a bias slot become a constant offset of the step;
+    // - terms reading a slot no step writes read zero after resetState() and are dropped;
+    // - terms reading the same source are merged into one term with the summed weight;
+    // - merged terms whose weight is below weightEpsilon in magnitude are dropped.
+    private static class Simplifier {
+
+        private EvaluationPlan plan;
+        private double[] weights;
+        private double[] state;
+        private SimplifiedNetwork.Report report;
+        private double[] offsets;
+        private ArrayList<ArrayList<Integer>> sources = new ArrayList<>();
+        private ArrayList<ArrayList<Double>> termWeights = new ArrayList<>();
+        private boolean[] liveSlot;
+        private boolean[] liveStep;
+
+        private Simplifier(EvaluationPlan plan, double[] weights, double[] state, SimplifiedNetwork.Report report) {
+            this.plan = plan;
+            this.weights = weights;
+            this.state = state;
+            this.report = report;
+            this.offsets = new double[plan.stepSlot.length];
+            report.stepsBefore = plan.stepSlot.length;
+            report.termsBefore = plan.termSource.length;
+            report.slotsBefore = plan.slotCount;
+        }
+
+        private void simplifyTerms(double weightEpsilon) {
+            boolean[] written = new boolean[plan.slotCount];
+            boolean[] bias = new boolean[plan.slotCount];
+            for (int step = 0; step < plan.stepSlot.length; step++) {
+                written[plan.stepSlot[step]] = true;
+            }
+            for (int slot : plan.biasSlots) {
+                bias[slot] = true;
+            }
+
+            for (int step = 0; step < plan.stepSlot.length; step++) {
+                Map<Integer, Double> merged = new LinkedHashMap<>();
+                for (int term = plan.termStart[step]; term < plan.termStart[step + 1]; term++) {
+                    int source = plan.termSource[term];
+                    double weight = weights[plan.termConnection[term]];
+                    if (source >= 0 && bias[source]) {
+                        offsets[step] += state[source] * weight;
+                        report.biasTermsFolded++;
+                    } else if (source >= 0 && !written[source]) {
+                        report.constantTermsDropped++;
+                    } else if (merged.containsKey(source)) {
+                        merged.put(source, merged.get(source) + weight);
+                        report.parallelTermsMerged++;
+                    } else {
+                        merged.put(source, weight);
+                    }
+                }
+
+                ArrayList<Integer> stepSources = new ArrayList<>(merged.size());
+                ArrayList<Double> stepWeights = new ArrayList<>(merged.size());
+                for (Map.Entry<Integer, Double> entry : merged.entrySet()) {
+                    if (Math.abs(entry.getValue()) < weightEpsilon) {
+                        report.smallWeightTermsDropped++;
+                        continue;
+                    }
+                    stepSources.add(entry.getKey());
+                    stepWeights.add(entry.getValue());
+                }
+                sources.add(stepSources);
+                termWeights.add(stepWeights);
+            }
+        }
+
+        // A step is live when it writes an output slot or a slot a term of a live step reads.
+        private void markLiveSteps() {
+            ArrayList<ArrayList<Integer>> writers = new ArrayList<>(plan.slotCount);
+            for (int slot = 0; slot < plan.slotCount; slot++) {
+                writers.add(new ArrayList<>());
+            }
+            for (int step = 0; step < plan.stepSlot.length; step++) {
+                writers.get(plan.stepSlot[step]).add(step);
+            }
+
+            liveSlot = new boolean[plan.slotCount];
+            liveStep = new boolean[plan.stepSlot.length];
+            ArrayDeque<Integer> pending = new ArrayDeque<>();
+            for (int slot : plan.outputSlots) {
+                if (!liveSlot[slot]) {
+                    liveSlot[slot] = true;
+                    pending.add(slot);
+                }
+            }
+            while (!pending.isEmpty()) {
+                for (int step : writers.get(pending.poll())) {
+                    liveStep[step] = true;
+                    for (int source : sources.get(step)) {
+                        if (source >= 0 && !liveSlot[source]) {
+                            liveSlot[source] = true;
+                            pending.add(source);
+                        }
+                    }
+                }
+            }
+        }
+
+        private SimplifiedNetwork build() {
+            int[] slotMapping = new int[plan.slotCount];
+            int slotCount = 0;
+            for (int slot = 0; slot < plan.slotCount; slot++) {
+                slotMapping[slot] = liveSlot[slot] ? slotCount++ : -1;
+            }
+
+            ArrayList<Integer> stepSlot = new ArrayList<>();
+            ArrayList<Integer> stepInput = new ArrayList<>();
+            ArrayList<Integer> termStart = new ArrayList<>();
+            ArrayList<ActivationFunction> stepFunction = new ArrayList<>();
+            ArrayList<Double> stepOffset = new ArrayList<>();
+            ArrayList<Integer> termSource = new ArrayList<>();
+            ArrayList<Double> newWeights = new ArrayList<>();
+            boolean[] inputSlot = new boolean[slotCount];
+            boolean[] outputSlot = new boolean[plan.slotCount];
+            for (int slot : plan.outputSlots) {
+                outputSlot[slot] = true;
+            }
+            termStart.add(0);
+            for (int step = 0; step < plan.stepSlot.length; step++) {
+                if (!liveStep[step]) {
+                    continue;
+                }
+                if (plan.stepInput[step] < 0 && !outputSlot[plan.stepSlot[step]]) {
+                    report.hiddenNodesAfter++;
+                }
+                int slot = slotMapping[plan.stepSlot[step]];
+                stepSlot.add(slot);
+                stepInput.add(plan.stepInput[step]);
+                stepFunction.add(plan.stepFunction[step]);
+                stepOffset.add(offsets[step]);
+                if (plan.stepInput[step] >= 0) {
+                    inputSlot[slot] = true;
+                }
+                ArrayList<Integer> stepSources = sources.get(step);
+                for (int i = 0; i < stepSources.size(); i++) {
+                    int source = stepSources.get(i);
+                    termSource.add(source >= 0 ? slotMapping[source] : source);
+                    newWeights.add(termWeights.get(step).get(i));
+                }
+                termStart.add(termSource.size());
+            }
+
+            EvaluationPlan simplified = new EvaluationPlan(plan.inputCount);
+            simplified.compiled = true;
+            simplified.slotCount = slotCount;
+            simplified.connectionCount = termSource.size();
+            simplified.stepSlot = toArray(stepSlot);
+            simplified.stepInput = toArray(stepInput);
+            simplified.termStart = toArray(termStart);
+            simplified.stepFunction = stepFunction.toArray(new ActivationFunction[0]);
+            simplified.termSource = toArray(termSource);
+            simplified.termConnection = new int[termSource.size()];
+            for (int term = 0; term < termSource.size(); term++) {
+                simplified.termConnection[term] = term;
+            }
+            simplified.outputSlots = new int[plan.outputSlots.length];
+            for (int i = 0; i < plan.outputSlots.length; i++) {
+                simplified.outputSlots[i] = slotMapping[plan.outputSlots[i]];
+            }
+            simplified.biasSlots = new int[0];
+            simplified.stepOffset = new double[stepOffset.size()];
+            for (int step = 0; step < stepOffset.size(); step++) {
+                simplified.stepOffset[step] = stepOffset.get(step);
+            }
+            simplified.indexInputTerms(inputSlot);
+
+            double[] weights = new double[newWeights.size()];
+            for (int term = 0; term < weights.length; term++) {
+                weights[term] = newWeights.get(term);
+            }
+            report.stepsAfter = simplified.stepSlot.length;
+            report.termsAfter = weights.length;
+            report.slotsAfter = slotCount;
+            return new SimplifiedNetwork(simplified, weights, report);
+        }
+    }
+
+    // Replays Genome.propagate on the structure alone, recording the order in which
+    // nodes fire and the order in which their inputs arrive.
+    private static class Compiler {
+
+        private List<NodeGene> nodes;
+        private Map<NodeGene, Integer> nodeIndex;
+        private Map<ConnectionGene, Integer> connectionIndex;
+        private int[] expectedInputs;
+        private int[] receivedInputs;
+        private boolean[] forwarded;
+        private boolean[] forwarding;
+        private ArrayList<ArrayList<int[]>> pendingTerms = new ArrayList<>();
+
+        private ArrayList<Integer> stepSlot = new ArrayList<>();
+        private ArrayList<Integer> stepInput = new ArrayList<>();
+        private ArrayList<Integer> termStart = new ArrayList<>();
+        private ArrayList<ActivationFunction> stepFunction = new ArrayList<>();
+        private ArrayList<Integer> termSource = new ArrayList<>();
+        private ArrayList<Integer> termConnection = new ArrayList<>();
+        private ArrayList<Integer> biasSlots = new ArrayList<>();
+        private int[] outputSlots;
+
+        private Compiler(List<NodeGene> nodes, Map<NodeGene, Integer> nodeIndex,
+                         Map<ConnectionGene, Integer> connectionIndex) {
+            this.nodes = nodes;
+            this.nodeIndex = nodeIndex;
+            this.connectionIndex = connectionIndex;
+            this.expectedInputs = new int[nodes.size()];
+            this.receivedInputs = new int[nodes.size()];
+            this.forwarded = new boolean[connectionIndex.size()];
+            this.forwarding = new boolean[connectionIndex.size()];
+            for (int i = 0; i < nodes.size(); i++) {
+                pendingTerms.add(new ArrayList<>());
+            }
+        }
+
+        private boolean run(int inputCount) {
+            int numInputs = 0;
+            int numOutputs = 0;
+            for (int i = 0; i < nodes.size(); i++) {
+                NodeGene node = nodes.get(i);
+                if (node instanceof InputNode) {
+                    numInputs++;
+                } else if (node instanceof OutputNode) {
+                    numOutputs++;
+                } else if (node instanceof BiasNode) {
+                    biasSlots.add(i);
+                }
+            }
+
+            for (NodeGene node : nodes) {
+                if (node instanceof InputNode) {
+                    for (ConnectionGene connection : node.getOutgoingConnections()) {
+                        if (connection.isEnabled() && !connection.isRecurrent() && !forwardExpectedInput(connection)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+
+            termStart.add(0);
+            for (int i = 0; i < inputCount; i++) {
+                int slot = slotOfId(i);
+                if (slot < 0 || !(nodes.get(slot) instanceof InputNode)) {
+                    return false;
+                }
+                boolean lastOutputSet = false;
+                for (ConnectionGene connection : nodes.get(slot).getOutgoingConnections()) {
+                    if (!feedForward(connection, -(i + 1))) {
+                        return false;
+                    }
+                    if (!lastOutputSet) {
+                        stepSlot.add(slot);
+                        stepInput.add(i);
+                        stepFunction.add(null);
+                        termStart.add(termSource.size());
+                        lastOutputSet = true;
+                    }
+                }
+            }
+
+            for (int i = 0; i < nodes.size(); i++) {
+                if (receivedInputs[i] != 0 || !pendingTerms.get(i).isEmpty()) {
+                    return false;
+                }
+            }
+
+            outputSlots = new int[numOutputs];
+            for (int i = 0; i < numOutputs; i++) {
+                int slot = slotOfId(i + numInputs);
+                if (slot < 0 || !(nodes.get(slot) instanceof OutputNode)) {
+                    return false;
+                }
+                outputSlots[i] = slot;
+            }
+            return true;
+        }
+
+        private boolean forwardExpectedInput(ConnectionGene connection) {
+            Integer index = connectionIndex.get(connection);
+            Integer target = nodeIndex.get(connection.getOutNode());
+            if (index == null || target == null || forwarding[index]) {
+                return false;
+            }
+            if (forwarded[index]) {
+                return true;
+            }
+            forwarding[index] = true;
+            NodeGene outNode = connection.getOutNode();
+            if (outNode instanceof HiddenNode) {
+                expectedInputs[target]++;
+                for (ConnectionGene next : outNode.getOutgoingConnections()) {
+                    if (next.isEnabled() && !next.isRecurrent() && !forwardExpectedInput(next)) {
+                        return false;
+                    }
+                }
+            } else if (outNode instanceof OutputNode) {
+                expectedInputs[target]++;
+            }
+            forwarding[index] = false;
+            forwarded[index] = true;
+            return true;
+        }
+
+        private boolean feedForward(ConnectionGene connection, int source) {
+            if (!connection.isEnabled() || connection.isRecurrent()) {
+                return true;
+            }
+            Integer index = connectionIndex.get(connection);
+            Integer target = nodeIndex.get(connection.getOutNode());
+            if (index == null || target == null) {
+                return false;
+            }
+            NodeGene outNode = connection.getOutNode();
+            if (!(outNode instanceof HiddenNode) && !(outNode instanceof OutputNode)) {
+                return false;
+            }
+            pendingTerms.get(target).add(new int[]{source, index});
+            receivedInputs[target]++;
+            if (receivedInputs[target] == expectedInputs[target]) {
+                return activate(target);
+            }
+            return true;
+        }
+
+        private boolean activate(int slot) {
+            NodeGene node = nodes.get(slot);
+            ArrayList<ConnectionGene> recurrentConnections;
+            ConnectionGene biasConnection;
+            ActivationFunction activationFunction;
+            if (node instanceof HiddenNode) {
+                HiddenNode hiddenNode = (HiddenNode) node;
+                recurrentConnections = hiddenNode.getInComingRecurrentConnections();
+                biasConnection = hiddenNode.getBiasConnection();
+                activationFunction = hiddenNode.getActivationFunction();
+            } else {
+                OutputNode outputNode = (OutputNode) node;
+                recurrentConnections = outputNode.getInComingRecurrentConnections();
+                biasConnection = outputNode.getBiasConnection();
+                activationFunction = outputNode.getActivationFunction();
+            }
+
+            ArrayList<int[]> terms = pendingTerms.get(slot);
+            for (int[] term : terms) {
+                termSource.add(term[0]);
+                termConnection.add(term[1]);
+            }
+            for (ConnectionGene connection : recurrentConnections) {
+                if (connection.isEnabled() && !addTerm(connection)) {
+                    return false;
+                }
+            }
+            if (biasConnection != null && !addTerm(biasConnection)) {
+                return false;
+            }
+            stepSlot.add(slot);
+            stepInput.add(-1);
+            stepFunction.add(activationFunction);
+            termStart.add(termSource.size());
+
+            if (node instanceof HiddenNode) {
+                for (ConnectionGene connection : node.getOutgoingConnections()) {
+                    if (!feedForward(connection, slot)) {
+                        return false;
+                    }
+                }
+            }
+            terms.clear();
+            receivedInputs[slot] = 0;
+            return true;
+        }
+
+        private boolean addTerm(ConnectionGene connection) {
+            Integer index = connectionIndex.get(connection);
+            Integer source = nodeIndex.get(connection.getInNode());
+            if (index == null || source == null) {
+                return false;
+            }
+            termSource.add(source);
+            termConnection.add(index);
+            return true;
+        }
+
+        private int slotOfId(int id) {
+            for (int i = 0; i < nodes.size(); i++) {
+                if (nodes.get(i).getId() == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.joshuadamian.neat.core.genome;
 
-import com.joshuadamian.neat.util.StaticManager;
+import com.joshuadamian.neat.util.EvolutionContext;
+import com.joshuadamian.neat.util.GenePool;
 import com.joshuadamian.neat.config.Config;
 import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
 import com.joshuadamian.neat.core.genome.genes.geneticencoding.GeneticEncoding;
@@ -9,6 +10,7 @@ import com.joshuadamian.neat.util.trackers.*;
 import com.joshuadamian.neat.util.trackers.innovationtracker.InnovationData;
 import com.joshuadamian.neat.util.trackers.innovationtracker.InnovationTracker;
 import com.joshuadamian.neat.util.trackers.innovationtracker.InnovationType;
+import com.joshuadamian.neat.util.trackers.lineage.MutationDelta;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -17,6 +19,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class Genome {
@@ -24,18 +27,49 @@ public class Genome {
     private int ID;
     private ArrayList<NodeGene> nodeGenes;
     private ArrayList<ConnectionGene> connectionGenes;
+    // Weights mutated since the genes were last copied, indexed like connectionGenes; null when the genes hold
+    // them. Copies share the array until one of them mutates its weights again.
+    private double[] weights;
+    private boolean ownsWeights;
     private double fitness;
     private double adjustedFitness;
     private ArrayList<NodeGene> inputNodes = new ArrayList<>();
     private ArrayList<NodeGene> outputNodes = new ArrayList<>();
     private BiasNode biasNode;
     private Config config;
-    private GenomeTracker genomeTracker;
-    private NodeTracker nodeTracker;
-    private InnovationTracker innovationTracker;
+    private EvolutionContext context;
+    private EvaluationPlan evaluationPlan;
+    private double[] planWeights;
+    private double[] planState;
+    private GeneticEncoding geneticEncoding;
     private int populationId;
+    private SplittableRandom random;
+    private GeneGroup geneGroup;
+    private ConnectionSampler connectionSampler;
+    private int nextTopologicalOrder = 0;
+    private int[] parentIds = new int[0];
+    private int speciesId = -1;
+    private int parentSpeciesId = -1;
+    private ArrayList<MutationDelta> mutationDeltas;
 
     public Genome(ArrayList<NodeGene> nodeGenes, ArrayList<ConnectionGene> connectionGenes, Config config, int populationId) {
+        this(nodeGenes, connectionGenes, config, populationId, null);
+    }
+
+    public Genome(ArrayList<NodeGene> nodeGenes, ArrayList<ConnectionGene> connectionGenes, Config config,
+                  int populationId, SplittableRandom random) {
+        this(nodeGenes, connectionGenes, config, EvolutionContext.of(populationId), random);
+    }
+
+    public Genome(ArrayList<NodeGene> nodeGenes, ArrayList<ConnectionGene> connectionGenes, Config config,
+                  EvolutionContext context, SplittableRandom random) {
+        this(nodeGenes, connectionGenes, config, context, random, context.getGenomeTracker().getNextGenomeId());
+    }
+
+    // Rebuilds a genome that already has an id, e.g. from a PopulationStore, without taking a new one from the
+    // context's genome tracker.
+    public Genome(ArrayList<NodeGene> nodeGenes, ArrayList<ConnectionGene> connectionGenes, Config config,
+                  EvolutionContext context, SplittableRandom random, int id) {
         this.nodeGenes = nodeGenes;
         this.connectionGenes = connectionGenes;
         this.inputNodes = nodeGenes.stream()
@@ -50,14 +84,50 @@ public class Genome {
                 .findFirst()
                 .orElse(null);
         this.config = config;
-        this.genomeTracker = StaticManager.getGenomeTracker(populationId);
-        this.nodeTracker = StaticManager.getNodeTracker(populationId);
-        this.innovationTracker = StaticManager.getInnovationTracker(populationId);
-        this.ID = genomeTracker.getNextGenomeId();
-        this.populationId = populationId;
+        this.context = context;
+        this.ID = id;
+        this.populationId = context.getPopulationId();
+        this.random = random != null
+                ? random
+                : new SplittableRandom(config.getSeed() ^ (((long) populationId << 32) | (ID & 0xFFFFFFFFL)));
+        initializeTopologicalOrder();
+    }
+
+    private Genome(Genome source, SplittableRandom random) {
+        this.nodeGenes = source.nodeGenes;
+        this.connectionGenes = source.connectionGenes;
+        this.weights = source.weights;
+        source.ownsWeights = false;
+        this.inputNodes = source.inputNodes;
+        this.outputNodes = source.outputNodes;
+        this.biasNode = source.biasNode;
+        this.config = source.config;
+        this.context = source.context;
+        this.evaluationPlan = source.evaluationPlan;
+        this.planWeights = source.planWeights;
+        this.geneticEncoding = source.geneticEncoding != null ? source.geneticEncoding.shallowCopy() : null;
+        this.ID = context.getGenomeTracker().getNextGenomeId();
+        this.populationId = source.populationId;
+        this.random = random;
+        this.nextTopologicalOrder = source.nextTopologicalOrder;
+        this.parentIds = new int[]{source.ID};
+        this.parentSpeciesId = source.speciesId;
+        if (source.geneGroup == null) {
+            source.geneGroup = new GeneGroup(source);
+        }
+        source.geneGroup.sharers.incrementAndGet();
+        this.geneGroup = source.geneGroup;
     }
 
     public double[] propagate(double[] inputs) {
+        claimEvaluationState();
+        if (config.getCompiledEvaluation()) {
+            double[] outputs = propagateCompiled(inputs);
+            if (outputs != null) {
+                return outputs;
+            }
+        }
+        applyWeights();
         calculateExpectedInputs();
         for (int i = 0; i < inputs.length; i++) {
             InputNode inputNode = (InputNode) getNodeById(i);
@@ -71,10 +141,98 @@ public class Genome {
         return outputs;
     }
 
+    // Evaluates a mostly zero input vector of Config.inputSize given by the indices and values of its
+    // non-zero entries. With compiled evaluation only the listed inputs are fed; otherwise, or when the
+    // topology can not be evaluated that way, the dense vector is built and propagated.
+    public double[] propagate(int[] inputIndices, double[] inputValues) {
+        int inputSize = config.getInputSize();
+        EvaluationPlan.checkSparseInputs(inputIndices, inputValues, inputSize);
+        claimEvaluationState();
+        if (config.getCompiledEvaluation() && prepareEvaluationPlan(inputSize)
+                && evaluationPlan.supportsSparseInputs()) {
+            return evaluationPlan.evaluateSparse(inputIndices, inputValues, planWeights, planState);
+        }
+        double[] inputs = new double[inputSize];
+        for (int i = 0; i < inputIndices.length; i++) {
+            inputs[inputIndices[i]] = inputValues[i];
+        }
+        return propagate(inputs);
+    }
+
+    private double[] propagateCompiled(double[] inputs) {
+        if (!prepareEvaluationPlan(inputs.length)) {
+            return null;
+        }
+        return evaluationPlan.evaluate(inputs, planWeights, planState);
+    }
+
+    private boolean prepareEvaluationPlan(int inputCount) {
+        if (evaluationPlan != null && evaluationPlan.getInputCount() != inputCount) {
+            invalidateEvaluationPlan();
+        }
+        if (evaluationPlan == null) {
+            evaluationPlan = context.getTopologyInterner().intern(nodeGenes, connectionGenes, inputCount);
+        }
+        if (!evaluationPlan.isCompiled()) {
+            return false;
+        }
+        if (planWeights == null) {
+            planWeights = weights != null ? weights : evaluationPlan.gatherWeights(connectionGenes);
+        }
+        if (planState == null) {
+            planState = evaluationPlan.gatherState(nodeGenes);
+        }
+        return true;
+    }
+
+    public void invalidateEvaluationPlan() {
+        if (planState != null) {
+            evaluationPlan.scatterState(planState, nodeGenes);
+        }
+        evaluationPlan = null;
+        planWeights = null;
+        planState = null;
+        geneticEncoding = null;
+    }
+
     public void checkForRecurrentConnections() {
+        materialize();
+        invalidateEvaluationPlan();
         for (ConnectionGene connection : connectionGenes) {
-            boolean recurrent = checkIfConnectionIsRecurent(connection.getInNode(), connection.getOutNode());
-            connection.setRecurrent(recurrent);
+            connection.setRecurrent(true);
+        }
+        for (int i = 0; i < nodeGenes.size(); i++) {
+            nodeGenes.get(i).setTopologicalOrder(i);
+        }
+        nextTopologicalOrder = nodeGenes.size();
+        for (ConnectionGene connection : connectionGenes) {
+            NodeGene inNode = connection.getInNode();
+            NodeGene outNode = connection.getOutNode();
+            if (!checkIfConnectionIsRecurent(inNode, outNode)) {
+                connection.setRecurrent(false);
+                TopologicalOrder.insert(inNode, outNode);
+            }
+        }
+    }
+
+    private void initializeTopologicalOrder() {
+        int maxOrder = TopologicalOrder.UNASSIGNED;
+        for (NodeGene node : nodeGenes) {
+            if (node.getTopologicalOrder() == TopologicalOrder.UNASSIGNED) {
+                maxOrder = TopologicalOrder.UNASSIGNED;
+                break;
+            }
+            maxOrder = Math.max(maxOrder, node.getTopologicalOrder());
+        }
+        if (maxOrder != TopologicalOrder.UNASSIGNED || nodeGenes.isEmpty()) {
+            nextTopologicalOrder = maxOrder + 1;
+            return;
+        }
+        int nextOrder = TopologicalOrder.assign(nodeGenes, connectionGenes);
+        if (nextOrder == TopologicalOrder.UNASSIGNED) {
+            checkForRecurrentConnections();
+        } else {
+            nextTopologicalOrder = nextOrder;
         }
     }
 
@@ -93,104 +251,80 @@ public class Genome {
     }
 
     public void mutate() {
-        Random weightRandom = new Random();
-        Random connectionRandom = new Random();
-        Random nodeRandom = new Random();
-
         double weightMutationRate = config.getWeightMutationRate();
         double addConnectionMutationRate = config.getAddConnectionMutationRate();
         double addNodeMutationRate = config.getAddNodeMutationRate();
 
-        if (weightRandom.nextDouble() < weightMutationRate) {
+        if (random.nextDouble() < weightMutationRate) {
             mutateWeight();
         }
-        if (connectionRandom.nextDouble() < addConnectionMutationRate) {
+        if (random.nextDouble() < addConnectionMutationRate) {
             mutateAddConnection();
         }
-        if (nodeRandom.nextDouble() < addNodeMutationRate) {
+        if (random.nextDouble() < addNodeMutationRate) {
             mutateAddNode();
         }
     }
 
+    // Only the weights are copied; the topology stays shared with the genome this one was copied from.
     public void mutateWeight() {
+        double[] weights = mutableWeights();
         double minWeight = config.getMinWeight();
         double maxWeight = config.getMaxWeight();
 
-        for (ConnectionGene connection : connectionGenes) {
-            double weight = connection.getWeight();
-            double random = Math.random();
-
-            if (random < 0.1) {
-                double newWeight = config.getWeightInitialization().initializeWeight();
-                newWeight = Math.max(minWeight, Math.min(newWeight, maxWeight));
-                connection.setWeight(newWeight);
+        for (int i = 0; i < weights.length; i++) {
+            double newWeight;
+            if (random.nextDouble() < 0.1) {
+                newWeight = config.getWeightInitialization().initializeWeight(random);
             } else {
                 double perturbRange = config.getPerturbRange();
-                double perturb = (Math.random() * 2 * perturbRange) - perturbRange;
-                double newWeight = weight + perturb;
-                newWeight = Math.max(minWeight, Math.min(newWeight, maxWeight));
-                connection.setWeight(newWeight);
+                double perturb = (random.nextDouble() * 2 * perturbRange) - perturbRange;
+                newWeight = weights[i] + perturb;
             }
+            weights[i] = Math.max(minWeight, Math.min(newWeight, maxWeight));
+            recordDelta(MutationDelta.weight(connectionGenes.get(i).getInnovationNumber(), weights[i]));
         }
     }
 
     public void mutateAddConnection() {
-        Random random = new Random();
-        NodeGene fromNode;
-        NodeGene toNode;
-        int maxAttempts = 100;
-        int attempts = 0;
-
-        while (attempts < maxAttempts) {
-            fromNode = nodeGenes.get(random.nextInt(nodeGenes.size()));
-            toNode = nodeGenes.get(random.nextInt(nodeGenes.size()));
-
-            if (!fromNode.acceptsOutgoingConnections() || !toNode.acceptsIncomingConnections()) {
-                attempts++;
-                continue;
-            }
-
-            boolean connectionExists = false;
-            for (ConnectionGene connection : connectionGenes) {
-                if (connection.getInNode() == fromNode && connection.getOutNode() == toNode) {
-                    connectionExists = true;
-                    break;
-                }
-            }
-
-            if (connectionExists) {
-                attempts++;
-                continue;
-            }
-
-            boolean isRecurrent = checkIfConnectionIsRecurent(fromNode, toNode);
-            double recurrentConnectionRate = config.getRecurrentConnectionRate();
-            boolean allowRecurrentConnections = config.getAllowRecurrentConnections();
-
-            if (isRecurrent) {
-                if (!allowRecurrentConnections || random.nextDouble() > recurrentConnectionRate) {
-                    attempts++;
-                    continue;
-                }
-            }
-
-            InnovationData innovationData = innovationTracker.trackInnovation(
-                    fromNode.getId(),
-                    toNode.getId()
-            );
+        materialize();
+        if (connectionSampler == null) {
+            connectionSampler = new ConnectionSampler(nodeGenes, config);
+        }
+        if (!connectionSampler.sample(random)) {
+            return;
+        }
+        invalidateEvaluationPlan();
+        NodeGene fromNode = connectionSampler.getFromNode();
+        NodeGene toNode = connectionSampler.getToNode();
+        boolean isRecurrent = connectionSampler.isRecurrent();
+
+        InnovationData innovationData = context.getInnovationTracker().trackInnovation(
+                fromNode.getId(),
+                toNode.getId()
+        );
 
-            ConnectionGene newConnection = new ConnectionGene(
-                    fromNode,
-                    toNode,
-                    config.getWeightInitialization().initializeWeight(),
-                    true,
-                    innovationData.getInnovationNumber(),
-                    isRecurrent,
-                    config
-            );
+        ConnectionGene newConnection = context.getGenePool().acquireConnection(
+                fromNode,
+                toNode,
+                config.getWeightInitialization().initializeWeight(random),
+                true,
+                innovationData.getInnovationNumber(),
+                isRecurrent,
+                config
+        );
 
-            connectionGenes.add(newConnection);
-            break;
+        connectionGenes.add(newConnection);
+        connectionSampler.addConnection(fromNode, toNode);
+        recordDelta(MutationDelta.addConnection(
+                newConnection.getInnovationNumber(),
+                fromNode.getId(),
+                toNode.getId(),
+                newConnection.getWeight(),
+                isRecurrent
+        ));
+        if (!isRecurrent) {
+            TopologicalOrder.insert(fromNode, toNode);
         }
     }
 
@@ -198,7 +332,7 @@ public class Genome {
         if (connectionGenes.isEmpty()) {
             return;
         }
-        Random random = new Random();
+        materialize();
         ConnectionGene selectedConnection = null;
         int maxAttempts = 100;
         int attempts = 0;
@@ -216,21 +350,25 @@ public class Genome {
             return;
         }
 
+        invalidateEvaluationPlan();
+
         selectedConnection.setEnabled(false);
-        Map<String, Object> innovations = innovationTracker.trackAddNodeInnovation(
+        Map<String, Object> innovations = context.getInnovationTracker().trackAddNodeInnovation(
                 selectedConnection.getInNode(),
                 selectedConnection.getOutNode(),
-                nodeTracker
+                context.getNodeTracker()
         );
 
         Integer newNodeId = (Integer) innovations.get("newNodeId");
         InnovationData inToNewInnovation = (InnovationData) innovations.get("inToNew");
         InnovationData newToOutInnovation = (InnovationData) innovations.get("newToOut");
 
-        HiddenNode newNode = new HiddenNode(newNodeId, config);
+        GenePool genePool = context.getGenePool();
+        HiddenNode newNode = genePool.acquireHiddenNode(newNodeId, config);
+        newNode.setTopologicalOrder(nextTopologicalOrder++);
         nodeGenes.add(newNode);
 
-        ConnectionGene connection1 = new ConnectionGene(
+        ConnectionGene connection1 = genePool.acquireConnection(
                 selectedConnection.getInNode(),
                 newNode,
                 1,
@@ -240,7 +378,7 @@ public class Genome {
                 config
         );
 
-        ConnectionGene connection2 = new ConnectionGene(
+        ConnectionGene connection2 = genePool.acquireConnection(
                 newNode,
                 selectedConnection.getOutNode(),
                 selectedConnection.getWeight(),
@@ -252,40 +390,37 @@ public class Genome {
 
         connectionGenes.add(connection1);
         connectionGenes.add(connection2);
+        if (connectionSampler != null) {
+            connectionSampler.addNode(newNode);
+            connectionSampler.addConnection(connection1.getInNode(), newNode);
+            connectionSampler.addConnection(newNode, connection2.getOutNode());
+        }
+        recordDelta(MutationDelta.enable(selectedConnection.getInnovationNumber(), false));
+        recordDelta(MutationDelta.addNode(
+                newNodeId,
+                selectedConnection.getInnovationNumber(),
+                connection1.getInnovationNumber(),
+                connection2.getInnovationNumber()
+        ));
+        if (!connection2.isRecurrent()) {
+            TopologicalOrder.insert(newNode, connection2.getOutNode());
+        }
     }
 
     public boolean checkIfConnectionIsRecurent(NodeGene fromNode, NodeGene toNode) {
-        boolean recurrent = false;
         if (toNode == fromNode) {
-            recurrent = true;
-            return recurrent;
+            return true;
         }
         if (fromNode instanceof OutputNode) {
-            recurrent = true;
-            return recurrent;
-        }
-        Stack<NodeGene> stack = new Stack<>();
-        Set<NodeGene> visited = new HashSet<>();
-        stack.push(toNode);
-
-        while (!stack.isEmpty()) {
-            NodeGene currentNode = stack.pop();
-            if (currentNode == fromNode) {
-                recurrent = true;
-                return recurrent;
-            }
-            visited.add(currentNode);
-            for (ConnectionGene connection : currentNode.getOutgoingConnections()) {
-                NodeGene nextNode = connection.getOutNode();
-                if (!connection.isRecurrent() && !visited.contains(nextNode)) {
-                    stack.push(nextNode);
-                }
-            }
+            return true;
         }
-        return recurrent;
+        return TopologicalOrder.createsCycle(fromNode, toNode);
     }
 
     public void prune(boolean removeDisabledConnections) {
+        materialize();
+        invalidateEvaluationPlan();
+        connectionSampler = null;
         if (removeDisabledConnections) {
             ArrayList<ConnectionGene> disabledConnections = new ArrayList<>();
             for (ConnectionGene conn : connectionGenes) {
@@ -410,17 +545,60 @@ public class Genome {
         }
     }
 
+    public SimplifiedNetwork simplify() {
+        return simplify(config.getSimplificationEpsilon());
+    }
+
+    // Compiles the genome and removes what does not change its outputs: disabled connections, nodes that no
+    // output depends on, bias connections (folded into per-node offsets) and parallel connections. The
+    // genome itself is left unchanged. Plans are only interned when compiled evaluation is on, since only then
+    // does the population evict them again.
+    public SimplifiedNetwork simplify(double weightEpsilon) {
+        EvaluationPlan plan = config.getCompiledEvaluation()
+                ? context.getTopologyInterner().intern(nodeGenes, connectionGenes, inputNodes.size())
+                : EvaluationPlan.compile(nodeGenes, connectionGenes, inputNodes.size());
+        if (!plan.isCompiled()) {
+            throw new IllegalStateException("Genome " + ID + " can not be compiled into an evaluation plan");
+        }
+        SimplifiedNetwork.Report report = new SimplifiedNetwork.Report();
+        report.connections = connectionGenes.size();
+        for (ConnectionGene connection : connectionGenes) {
+            if (!connection.isEnabled()) {
+                report.disabledConnections++;
+            }
+        }
+        for (NodeGene node : nodeGenes) {
+            if (node instanceof HiddenNode) {
+                report.hiddenNodesBefore++;
+            }
+        }
+        double[] state = plan.gatherState(nodeGenes);
+        double[] planWeights = weights != null ? weights.clone() : plan.gatherWeights(connectionGenes);
+        return plan.simplify(planWeights, state, weightEpsilon, report);
+    }
+
     public GeneticEncoding getGeneticEncoding() {
-        GeneticEncoding geneticEncoding = new GeneticEncoding(config, populationId);
-        geneticEncoding.loadGenome(this);
+        if (geneticEncoding == null) {
+            geneticEncoding = new GeneticEncoding(config, context);
+            geneticEncoding.loadGenome(this);
+        } else {
+            geneticEncoding.setFitness(fitness);
+        }
         return geneticEncoding;
     }
 
     public Genome crossover(Genome parent2) {
+        return crossover(parent2, random.split());
+    }
+
+    public Genome crossover(Genome parent2, SplittableRandom childRandom) {
         GeneticEncoding parent1Encoding = this.getGeneticEncoding();
         GeneticEncoding parent2Encoding = parent2.getGeneticEncoding();
-        GeneticEncoding childEncoding = parent1Encoding.crossover(parent2Encoding);
-        return childEncoding.buildGenome();
+        GeneticEncoding childEncoding = parent1Encoding.crossover(parent2Encoding, childRandom);
+        Genome child = childEncoding.buildGenome(childRandom);
+        child.parentIds = new int[]{this.ID, parent2.ID};
+        child.parentSpeciesId = this.speciesId;
+        return child;
     }
 
     public void calculateFitness() {
@@ -428,6 +606,12 @@ public class Genome {
     }
 
     public void resetState() {
+        if (geneGroup != null) {
+            geneGroup.stateOwner = this;
+        }
+        if (planState != null) {
+            evaluationPlan.resetState(planState);
+        }
         for (NodeGene node : nodeGenes) {
             if (!(node instanceof BiasNode)) {
                 node.resetState();
@@ -441,7 +625,7 @@ public class Genome {
             return false;
         }
         for (int i = 0; i < connectionGenes.size(); i++) {
-            if (connectionGenes.get(i).getWeight() != genome.getConnectionGenes().get(i).getWeight()) {
+            if (getConnectionWeight(i) != genome.getConnectionWeight(i)) {
                 return false;
             }
         }
@@ -449,9 +633,49 @@ public class Genome {
     }
 
     public void reinitializeWeights() {
-        for (ConnectionGene connection : connectionGenes) {
-            connection.setWeight(config.getWeightInitialization().initializeWeight());
+        double[] weights = mutableWeights();
+        double[] newWeights = config.getWeightInitialization().initializeWeights(connectionGenes.size(), random);
+        for (int i = 0; i < newWeights.length; i++) {
+            weights[i] = newWeights[i];
+            recordDelta(MutationDelta.weight(connectionGenes.get(i).getInnovationNumber(), weights[i]));
+        }
+    }
+
+    // The weights of the connection genes in order, which may not be the weights the genes themselves hold.
+    public double getConnectionWeight(int index) {
+        return weights != null ? weights[index] : connectionGenes.get(index).getWeight();
+    }
+
+    private double[] mutableWeights() {
+        if (weights == null) {
+            weights = new double[connectionGenes.size()];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = connectionGenes.get(i).getWeight();
+            }
+        } else if (!ownsWeights) {
+            weights = weights.clone();
         }
+        ownsWeights = true;
+        planWeights = null;
+        geneticEncoding = null;
+        return weights;
+    }
+
+    // Puts the weights back into the genes, for everything that reads them there: evaluating node by node and
+    // changing the topology. Genes still shared with other genomes are copied first.
+    private void applyWeights() {
+        if (weights == null) {
+            return;
+        }
+        if (isSharingGenes()) {
+            materialize();
+            return;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            connectionGenes.get(i).setWeight(weights[i]);
+        }
+        weights = null;
+        ownsWeights = false;
     }
 
     public NodeGene getNodeById(int id) {
@@ -464,40 +688,60 @@ public class Genome {
     }
 
     public Genome copy() {
-        ArrayList<NodeGene> nodes = nodeGenes;
-        ArrayList<ConnectionGene> connections = connectionGenes;
+        return copy(random.split());
+    }
+
+    public Genome copy(SplittableRandom childRandom) {
+        return new Genome(this, childRandom);
+    }
+
+    public Genome deepCopy(SplittableRandom childRandom) {
+        Genome copy = new Genome(this, childRandom);
+        copy.materialize();
+        return copy;
+    }
+
+    public void materialize() {
+        materialize(context.getGenePool());
+    }
 
-        ArrayList<NodeGene> newNodes = new ArrayList<>();
-        ArrayList<ConnectionGene> newConnections = new ArrayList<>();
-        Map<Integer, NodeGene> nodeMapping = new HashMap<>();
+    // Genomes materialized on different threads at the same time each need their own gene pool.
+    public void materialize(GenePool genePool) {
+        if (!isSharingGenes()) {
+            applyWeights();
+            return;
+        }
+        ArrayList<NodeGene> newNodes = genePool.acquireNodeList(nodeGenes.size());
+        ArrayList<ConnectionGene> newConnections = genePool.acquireConnectionList(connectionGenes.size());
+        Map<Integer, NodeGene> nodeMapping = new HashMap<>(nodeGenes.size() * 2);
 
-        for (NodeGene node : nodes) {
+        for (NodeGene node : nodeGenes) {
             NodeGene newNode = null;
             if (node instanceof InputNode) {
-                newNode = new InputNode(node.getId(), config);
+                newNode = genePool.acquireInputNode(node.getId(), config);
             } else if (node instanceof HiddenNode) {
-                newNode = new HiddenNode(node.getId(), config);
+                newNode = genePool.acquireHiddenNode(node.getId(), config);
             } else if (node instanceof OutputNode) {
-                newNode = new OutputNode(node.getId(), config);
+                newNode = genePool.acquireOutputNode(node.getId(), config);
             } else if (node instanceof BiasNode) {
-                newNode = new BiasNode(node.getId(), config);
+                newNode = genePool.acquireBiasNode(node.getId(), config, ((BiasNode) node).getBias());
             }
             if (newNode != null) {
+                newNode.setTopologicalOrder(node.getTopologicalOrder());
                 newNodes.add(newNode);
                 nodeMapping.put(newNode.getId(), newNode);
             }
         }
 
-        for (ConnectionGene connection : connections) {
-            NodeGene originalInNode = connection.getInNode();
-            NodeGene originalOutNode = connection.getOutNode();
-            NodeGene newInNode = nodeMapping.get(originalInNode.getId());
-            NodeGene newOutNode = nodeMapping.get(originalOutNode.getId());
+        for (int i = 0; i < connectionGenes.size(); i++) {
+            ConnectionGene connection = connectionGenes.get(i);
+            NodeGene newInNode = nodeMapping.get(connection.getInNode().getId());
+            NodeGene newOutNode = nodeMapping.get(connection.getOutNode().getId());
             if (newInNode != null && newOutNode != null) {
-                ConnectionGene newConnection = new ConnectionGene(
+                ConnectionGene newConnection = genePool.acquireConnection(
                         newInNode,
                         newOutNode,
-                        connection.getWeight(),
+                        getConnectionWeight(i),
                         connection.isEnabled(),
                         connection.getInnovationNumber(),
                         connection.isRecurrent(),
@@ -506,9 +750,87 @@ public class Genome {
                 newConnections.add(newConnection);
             }
         }
-        return new Genome(newNodes, newConnections, config, populationId);
+
+        this.nodeGenes = newNodes;
+        this.connectionGenes = newConnections;
+        this.weights = null;
+        this.ownsWeights = false;
+        this.inputNodes = new ArrayList<>(inputNodes.size());
+        this.outputNodes = new ArrayList<>(outputNodes.size());
+        this.biasNode = null;
+        for (NodeGene node : newNodes) {
+            if (node instanceof InputNode) {
+                inputNodes.add(node);
+            } else if (node instanceof OutputNode) {
+                outputNodes.add(node);
+            } else if (node instanceof BiasNode) {
+                biasNode = (BiasNode) node;
+            }
+        }
+        leaveGeneGroup();
+        this.connectionSampler = null;
+        this.evaluationPlan = null;
+        this.planWeights = null;
+        this.planState = null;
+    }
+
+    public void release() {
+        if (isSharingGenes()) {
+            leaveGeneGroup();
+            return;
+        }
+        connectionSampler = null;
+        evaluationPlan = null;
+        planWeights = null;
+        planState = null;
+        geneticEncoding = null;
+        weights = null;
+        context.getGenePool().release(nodeGenes, connectionGenes);
+        inputNodes.clear();
+        outputNodes.clear();
+        biasNode = null;
+    }
+
+    private void recordDelta(MutationDelta delta) {
+        if (!config.getLineageLogging()) {
+            return;
+        }
+        if (mutationDeltas == null) {
+            mutationDeltas = new ArrayList<>();
+        }
+        mutationDeltas.add(delta);
+    }
+
+    public int[] getParentIds() {
+        return parentIds;
+    }
+
+    public List<MutationDelta> getMutationDeltas() {
+        return mutationDeltas != null ? mutationDeltas : Collections.emptyList();
+    }
+
+    public void clearMutationDeltas() {
+        mutationDeltas = null;
+    }
+
+    public boolean isSharingGenes() {
+        return geneGroup != null && geneGroup.sharers.get() > 1;
+    }
+
+    // Leaving only after the copy is complete lets the last remaining sharer take the genes over as its own.
+    private void leaveGeneGroup() {
+        if (geneGroup != null) {
+            geneGroup.sharers.decrementAndGet();
+            geneGroup = null;
+        }
     }
 
+    private void claimEvaluationState() {
+        if (geneGroup != null && geneGroup.stateOwner != this) {
+            resetState();
+            geneGroup.stateOwner = this;
+        }
+    }
 
     public JSONObject toJSON() {
         JSONObject jsonGenome = new JSONObject();
@@ -524,13 +846,14 @@ public class Genome {
         jsonGenome.put("nodeGenes", nodeGenesArray);
 
         JSONArray connectionGenesArray = new JSONArray();
-        for (ConnectionGene connection : this.connectionGenes) {
+        for (int i = 0; i < connectionGenes.size(); i++) {
+            ConnectionGene connection = connectionGenes.get(i);
             JSONObject connJson = new JSONObject();
             connJson.put("innovationNumber", connection.getInnovationNumber());
             connJson.put("inNodeId", connection.getInNode().getId());
             connJson.put("outNodeId", connection.getOutNode().getId());
             connJson.put("enabled", connection.isEnabled());
-            connJson.put("weight", connection.getWeight());
+            connJson.put("weight", getConnectionWeight(i));
             connJson.put("recurrent", connection.isRecurrent());
             connectionGenesArray.put(connJson);
         }
@@ -563,10 +886,22 @@ public class Genome {
         return config;
     }
 
+    public int getPopulationId() {
+        return populationId;
+    }
+
+    public EvolutionContext getContext() {
+        return context;
+    }
+
     public void setConfig(Config config) {
         this.config = config;
     }
 
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
     public int getID() {
         return ID;
     }
@@ -591,11 +926,35 @@ public class Genome {
         this.adjustedFitness = adjustedFitness;
     }
 
-    public ArrayList<NodeGene> getNodeGenes() {
-        return nodeGenes;
+    public int getSpeciesId() {
+        return speciesId;
     }
 
-    public ArrayList<ConnectionGene> getConnectionGenes() {
-        return connectionGenes;
+    public void setSpeciesId(int speciesId) {
+        this.speciesId = speciesId;
+    }
+
+    public int getParentSpeciesId() {
+        return parentSpeciesId;
+    }
+
+    // Read-only views, since the lists may be shared with copies that have not materialized yet. The weights of
+    // the connections are read with getConnectionWeight.
+    public List<NodeGene> getNodeGenes() {
+        return Collections.unmodifiableList(nodeGenes);
+    }
+
+    public List<ConnectionGene> getConnectionGenes() {
+        return Collections.unmodifiableList(connectionGenes);
+    }
+
+    // Genomes copied from one another share their genes and evaluation state until each materializes.
+    private static class GeneGroup {
+        private final AtomicInteger sharers = new AtomicInteger(1);
+        private volatile Genome stateOwner;
+
+        private GeneGroup(Genome owner) {
+            this.stateOwner = owner;
+        }
     }
 }
\ No newline at end of file
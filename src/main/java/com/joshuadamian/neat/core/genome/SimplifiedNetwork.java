@@ -0,0 +1,147 @@
+package com.joshuadamian.neat.core.genome;
+
+// A genome's network prepared for deployment by Genome.simplify(). It evaluates a simplified evaluation plan
+// with its own copy of the weights and its own state, so later changes to the genome do not affect it.
+// Outputs match the genome's compiled evaluation from a reset state up to rounding, plus whatever the
+// connections dropped for being below the weight epsilon contributed.
+public class SimplifiedNetwork {
+
+    private EvaluationPlan plan;
+    private double[] weights;
+    private double[] state;
+    private Report report;
+
+    SimplifiedNetwork(EvaluationPlan plan, double[] weights, Report report) {
+        this.plan = plan;
+        this.weights = weights;
+        this.state = new double[plan.getSlotCount()];
+        this.report = report;
+    }
+
+    public double[] propagate(double[] inputs) {
+        if (inputs.length != plan.getInputCount()) {
+            throw new IllegalArgumentException("Expected " + plan.getInputCount() + " inputs but got " + inputs.length);
+        }
+        return plan.evaluate(inputs, weights, state);
+    }
+
+    public double[] propagate(int[] inputIndices, double[] inputValues) {
+        EvaluationPlan.checkSparseInputs(inputIndices, inputValues, plan.getInputCount());
+        if (plan.supportsSparseInputs()) {
+            return plan.evaluateSparse(inputIndices, inputValues, weights, state);
+        }
+        double[] inputs = new double[plan.getInputCount()];
+        for (int i = 0; i < inputIndices.length; i++) {
+            inputs[inputIndices[i]] = inputValues[i];
+        }
+        return plan.evaluate(inputs, weights, state);
+    }
+
+    public void resetState() {
+        plan.resetState(state);
+    }
+
+    public EvaluationPlan getEvaluationPlan() {
+        return plan;
+    }
+
+    public double[] getWeights() {
+        return weights;
+    }
+
+    public Report getReport() {
+        return report;
+    }
+
+    // What simplification removed. Before counts are of the genome's own evaluation plan.
+    public static class Report {
+
+        int connections;
+        int disabledConnections;
+        int hiddenNodesBefore;
+        int hiddenNodesAfter;
+        int stepsBefore;
+        int stepsAfter;
+        int termsBefore;
+        int termsAfter;
+        int slotsBefore;
+        int slotsAfter;
+        int biasTermsFolded;
+        int constantTermsDropped;
+        int parallelTermsMerged;
+        int smallWeightTermsDropped;
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public int getDisabledConnections() {
+            return disabledConnections;
+        }
+
+        public int getHiddenNodesBefore() {
+            return hiddenNodesBefore;
+        }
+
+        public int getHiddenNodesAfter() {
+            return hiddenNodesAfter;
+        }
+
+        public int getDeadNodesRemoved() {
+            return hiddenNodesBefore - hiddenNodesAfter;
+        }
+
+        public int getStepsBefore() {
+            return stepsBefore;
+        }
+
+        public int getStepsAfter() {
+            return stepsAfter;
+        }
+
+        public int getTermsBefore() {
+            return termsBefore;
+        }
+
+        public int getTermsAfter() {
+            return termsAfter;
+        }
+
+        public int getSlotsBefore() {
+            return slotsBefore;
+        }
+
+        public int getSlotsAfter() {
+            return slotsAfter;
+        }
+
+        public int getBiasTermsFolded() {
+            return biasTermsFolded;
+        }
+
+        public int getConstantTermsDropped() {
+            return constantTermsDropped;
+        }
+
+        public int getParallelTermsMerged() {
+            return parallelTermsMerged;
+        }
+
+        public int getSmallWeightTermsDropped() {
+            return smallWeightTermsDropped;
+        }
+
+        @Override
+        public String toString() {
+            return "connections: " + connections + " (" + disabledConnections + " disabled)"
+                    + ", hidden nodes: " + hiddenNodesBefore + " -> " + hiddenNodesAfter
+                    + ", steps: " + stepsBefore + " -> " + stepsAfter
+                    + ", terms: " + termsBefore + " -> " + termsAfter
+                    + ", slots: " + slotsBefore + " -> " + slotsAfter
+                    + ", bias terms folded: " + biasTermsFolded
+                    + ", constant terms dropped: " + constantTermsDropped
+                    + ", parallel terms merged: " + parallelTermsMerged
+                    + ", small weight terms dropped: " + smallWeightTermsDropped;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.joshuadamian.neat.core.genome;
+
+import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
+import com.joshuadamian.neat.core.genome.genes.nodegene.NodeGene;
+
+import java.util.*;
+
+public class TopologicalOrder {
+
+    public static final int UNASSIGNED = -1;
+
+    private TopologicalOrder() {
+    }
+
+    public static int assign(List<NodeGene> nodes, List<ConnectionGene> connections) {
+        Map<NodeGene, Integer> inDegree = new HashMap<>(nodes.size() * 2);
+        for (NodeGene node : nodes) {
+            inDegree.put(node, 0);
+        }
+        for (ConnectionGene connection : connections) {
+            if (!connection.isRecurrent()) {
+                inDegree.merge(connection.getOutNode(), 1, Integer::sum);
+            }
+        }
+
+        ArrayDeque<NodeGene> ready = new ArrayDeque<>();
+        for (NodeGene node : nodes) {
+            if (inDegree.get(node) == 0) {
+                ready.add(node);
+            }
+        }
+
+        int order = 0;
+        while (!ready.isEmpty()) {
+            NodeGene node = ready.poll();
+            node.setTopologicalOrder(order++);
+            if (!node.acceptsOutgoingConnections()) {
+                continue;
+            }
+            for (ConnectionGene connection : node.getOutgoingConnections()) {
+                if (connection.isRecurrent()) {
+                    continue;
+                }
+                NodeGene next = connection.getOutNode();
+                int remaining = inDegree.merge(next, -1, Integer::sum);
+                if (remaining == 0) {
+                    ready.add(next);
+                }
+            }
+        }
+        return order == inDegree.size() ? order : UNASSIGNED;
+    }
+
+    public static boolean createsCycle(NodeGene fromNode, NodeGene toNode) {
+        if (fromNode == toNode) {
+            return true;
+        }
+        int upperBound = fromNode.getTopologicalOrder();
+        if (upperBound < toNode.getTopologicalOrder()) {
+            return false;
+        }
+        ArrayDeque<NodeGene> stack = new ArrayDeque<>();
+        Set<NodeGene> visited = new HashSet<>();
+        stack.push(toNode);
+        visited.add(toNode);
+
+        while (!stack.isEmpty()) {
+            NodeGene currentNode = stack.pop();
+            if (currentNode == fromNode) {
+                return true;
+            }
+            for (ConnectionGene connection : currentNode.getOutgoingConnections()) {
+                NodeGene nextNode = connection.getOutNode();
+                if (!connection.isRecurrent()
+                        && nextNode.getTopologicalOrder() <= upperBound
+                        && visited.add(nextNode)) {
+                    stack.push(nextNode);
+                }
+            }
+        }
+        return false;
+    }
+
+    public static void insert(NodeGene fromNode, NodeGene toNode) {
+        int lowerBound = toNode.getTopologicalOrder();
+        int upperBound = fromNode.getTopologicalOrder();
+        if (upperBound < lowerBound) {
+            return;
+        }
+
+        ArrayList<NodeGene> forward = collect(toNode, upperBound, true);
+        ArrayList<NodeGene> backward = collect(fromNode, lowerBound, false);
+
+        Comparator<NodeGene> byOrder = Comparator.comparingInt(NodeGene::getTopologicalOrder);
+        forward.sort(byOrder);
+        backward.sort(byOrder);
+
+        int[] orders = new int[forward.size() + backward.size()];
+        int index = 0;
+        for (NodeGene node : backward) {
+            orders[index++] = node.getTopologicalOrder();
+        }
+        for (NodeGene node : forward) {
+            orders[index++] = node.getTopologicalOrder();
+        }
+        Arrays.sort(orders);
+
+        index = 0;
+        for (NodeGene node : backward) {
+            node.setTopologicalOrder(orders[index++]);
+        }
+        for (NodeGene node : forward) {
+            node.setTopologicalOrder(orders[index++]);
+        }
+    }
+
+    private static ArrayList<NodeGene> collect(NodeGene start, int bound, boolean forward) {
+        ArrayList<NodeGene> region = new ArrayList<>();
+        ArrayDeque<NodeGene> stack = new ArrayDeque<>();
+        Set<NodeGene> visited = new HashSet<>();
+        stack.push(start);
+        visited.add(start);
+
+        while (!stack.isEmpty()) {
+            NodeGene currentNode = stack.pop();
+            region.add(currentNode);
+            if (forward ? !currentNode.acceptsOutgoingConnections() : !currentNode.acceptsIncomingConnections()) {
+                continue;
+            }
+            List<ConnectionGene> connections = forward
+                    ? currentNode.getOutgoingConnections()
+                    : currentNode.getIncomingConnections();
+            for (ConnectionGene connection : connections) {
+                if (connection.isRecurrent()) {
+                    continue;
+                }
+                NodeGene nextNode = forward ? connection.getOutNode() : connection.getInNode();
+                int order = nextNode.getTopologicalOrder();
+                boolean inRegion = forward ? order < bound : order > bound;
+                if (inRegion && visited.add(nextNode)) {
+                    stack.push(nextNode);
+                }
+            }
+        }
+        return region;
+    }
+}
\ No newline at end of file
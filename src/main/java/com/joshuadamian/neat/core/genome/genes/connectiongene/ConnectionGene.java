@@ -5,6 +5,8 @@ import com.joshuadamian.neat.core.genome.genes.nodegene.HiddenNode;
 import com.joshuadamian.neat.core.genome.genes.nodegene.NodeGene;
 import com.joshuadamian.neat.core.genome.genes.nodegene.OutputNode;
 
+import java.util.SplittableRandom;
+
 public class ConnectionGene {
 
     private NodeGene inNode;
@@ -24,6 +26,18 @@ public class ConnectionGene {
             int innovationNumber,
             boolean recurrent,
             Config config
+    ) {
+        recycle(inNode, outNode, weight, enabled, innovationNumber, recurrent, config);
+    }
+
+    public void recycle(
+            NodeGene inNode,
+            NodeGene outNode,
+            double weight,
+            boolean enabled,
+            int innovationNumber,
+            boolean recurrent,
+            Config config
     ) {
         this.inNode = inNode;
         this.outNode = outNode;
@@ -31,6 +45,7 @@ public class ConnectionGene {
         this.enabled = enabled;
         this.innovationNumber = innovationNumber;
         this.recurrent = recurrent;
+        this.forwardedExpectedInput = false;
         this.config = config;
         inNode.addOutgoingConnection(this);
         outNode.addIncomingConnection(this);
@@ -56,8 +71,8 @@ public class ConnectionGene {
         forwardedExpectedInput = true;
     }
 
-    public void reinitializeWeight() {
-        this.weight = config.getWeightInitialization().initializeWeight();
+    public void reinitializeWeight(SplittableRandom random) {
+        this.weight = config.getWeightInitialization().initializeWeight(random);
     }
 
     public boolean isRecurrent() {
@@ -93,7 +108,11 @@ public class ConnectionGene {
     }
 
     public void setRecurrent(boolean recurrent) {
+        if (this.recurrent == recurrent) {
+            return;
+        }
         this.recurrent = recurrent;
+        outNode.updateRecurrentConnection(this);
     }
 
     public void setForwardedExpectedInput(boolean forwardExpectedInput) {
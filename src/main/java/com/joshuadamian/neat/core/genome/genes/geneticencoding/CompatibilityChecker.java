@@ -0,0 +1,134 @@
+package com.joshuadamian.neat.core.genome.genes.geneticencoding;
+
+import com.joshuadamian.neat.config.Config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class CompatibilityChecker {
+
+    private Config config;
+    private double compatibilityThreshold;
+    private LongAdder comparisons = new LongAdder();
+    private LongAdder prunedByBound = new LongAdder();
+    private LongAdder prunedByGeneCounts = new LongAdder();
+
+    public CompatibilityChecker(Config config) {
+        this.config = config;
+        this.compatibilityThreshold = config.getCompatibilityThreshold();
+    }
+
+    // Returns the same result as calculateCompatibilityDistance(representative) < compatibilityThreshold.
+    // With non-negative coefficients the excess and disjoint terms are a lower bound of the distance, so
+    // the comparison is decided early when a bound on them, or their exact value, reaches the threshold.
+    public boolean isCompatible(GeneticEncoding genome, GeneticEncoding representative) {
+        comparisons.increment();
+        double threshold = compatibilityThreshold;
+        if (config.getC1() < 0 || config.getC2() < 0 || config.getC3() < 0) {
+            return genome.calculateCompatibilityDistance(representative) < threshold;
+        }
+
+        int[] innovations = genome.getSortedInnovationNumbers();
+        int[] otherInnovations = representative.getSortedInnovationNumbers();
+        int maxInnovation = genome.getHighestInnovationNumber();
+        int otherMaxInnovation = representative.getHighestInnovationNumber();
+        int comparisonLimit = Math.min(maxInnovation, otherMaxInnovation);
+        int[] largerInnovations = maxInnovation > otherMaxInnovation ? innovations : otherInnovations;
+        int excessGenes = largerInnovations.length - countAtMost(largerInnovations, comparisonLimit);
+        int maxGenes = Math.max(innovations.length, otherInnovations.length);
+        maxGenes = maxGenes < 20 ? 1 : maxGenes;
+
+        int disjointLowerBound = Math.abs(innovations.length - otherInnovations.length) - excessGenes;
+        if (innovations.length > 0 && otherInnovations.length > 0) {
+            int outOfRange = countBelow(innovations, otherInnovations[0])
+                    + countBelow(otherInnovations, innovations[0]);
+            disjointLowerBound = Math.max(disjointLowerBound, outOfRange);
+        }
+        disjointLowerBound = Math.max(disjointLowerBound, 0);
+        if (geneDistance(excessGenes, disjointLowerBound, maxGenes) >= threshold) {
+            prunedByBound.increment();
+            return false;
+        }
+
+        int disjointGenes = countDisjoint(innovations, otherInnovations, comparisonLimit);
+        double geneDistance = geneDistance(excessGenes, disjointGenes, maxGenes);
+        if (geneDistance >= threshold) {
+            prunedByGeneCounts.increment();
+            return false;
+        }
+        return geneDistance + (config.getC3() * genome.calculateAverageWeightDifference(representative)) < threshold;
+    }
+
+    private double geneDistance(int excessGenes, int disjointGenes, int maxGenes) {
+        return ((config.getC1() * excessGenes) / maxGenes) + ((config.getC2() * disjointGenes) / maxGenes);
+    }
+
+    private int countDisjoint(int[] innovations, int[] otherInnovations, int comparisonLimit) {
+        int count = countAtMost(innovations, comparisonLimit);
+        int otherCount = countAtMost(otherInnovations, comparisonLimit);
+        int disjointGenes = 0;
+        int i = 0;
+        int j = 0;
+        while (i < count && j < otherCount) {
+            if (innovations[i] == otherInnovations[j]) {
+                i++;
+                j++;
+            } else if (innovations[i] < otherInnovations[j]) {
+                disjointGenes++;
+                i++;
+            } else {
+                disjointGenes++;
+                j++;
+            }
+        }
+        return disjointGenes + (count - i) + (otherCount - j);
+    }
+
+    private int countBelow(int[] sortedValues, int value) {
+        int low = 0;
+        int high = sortedValues.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedValues[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int countAtMost(int[] sortedValues, int value) {
+        return value == Integer.MAX_VALUE ? sortedValues.length : countBelow(sortedValues, value + 1);
+    }
+
+    public void setCompatibilityThreshold(double compatibilityThreshold) {
+        this.compatibilityThreshold = compatibilityThreshold;
+    }
+
+    public double getCompatibilityThreshold() {
+        return compatibilityThreshold;
+    }
+
+    public void resetStatistics() {
+        comparisons.reset();
+        prunedByBound.reset();
+        prunedByGeneCounts.reset();
+    }
+
+    public long getComparisons() {
+        return comparisons.sum();
+    }
+
+    public long getPrunedByBound() {
+        return prunedByBound.sum();
+    }
+
+    public long getPrunedByGeneCounts() {
+        return prunedByGeneCounts.sum();
+    }
+
+    public double getPrunedRate() {
+        long total = comparisons.sum();
+        return total == 0 ? 0.0 : (double) (prunedByBound.sum() + prunedByGeneCounts.sum()) / total;
+    }
+}
\ No newline at end of file
@@ -4,6 +4,8 @@ import com.joshuadamian.neat.config.Config;
 import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
 import com.joshuadamian.neat.core.genome.genes.nodegene.*;
 import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.util.GenePool;
+import com.joshuadamian.neat.util.EvolutionContext;
 
 import java.util.*;
 
@@ -15,27 +17,53 @@ public class GeneticEncoding {
     private NodeGeneData[] outputNodes = new NodeGeneData[0];
     private NodeGeneData biasNode = null;
     private double fitness;
+    private int highestInnovationNumber = -1; // -1 while the genome has no connections
+    private int[] sortedInnovationNumbers;
     private Config config;
-    private int populationId;
+    private EvolutionContext context;
 
     public GeneticEncoding(Config config, int populationId) {
+        this(config, EvolutionContext.of(populationId));
+    }
+
+    public GeneticEncoding(Config config, EvolutionContext context) {
         this.connectionGenesMap = new HashMap<>();
         this.nodeGenesMap = new HashMap<>();
         this.config = config;
-        this.populationId = populationId;
+        this.context = context;
+    }
+
+    private GeneticEncoding(GeneticEncoding source) {
+        this.connectionGenesMap = source.connectionGenesMap;
+        this.nodeGenesMap = source.nodeGenesMap;
+        this.inputNodes = source.inputNodes;
+        this.outputNodes = source.outputNodes;
+        this.biasNode = source.biasNode;
+        this.fitness = source.fitness;
+        this.highestInnovationNumber = source.highestInnovationNumber;
+        this.sortedInnovationNumbers = source.sortedInnovationNumbers;
+        this.config = source.config;
+        this.context = source.context;
     }
 
     public void loadGenome(Genome genome) {
         connectionGenesMap.clear();
         nodeGenesMap.clear();
-
-        for (ConnectionGene connection : genome.getConnectionGenes()) {
+        inputNodes = new NodeGeneData[0];
+        outputNodes = new NodeGeneData[0];
+        biasNode = null;
+        highestInnovationNumber = -1;
+
+        List<ConnectionGene> connections = genome.getConnectionGenes();
+        for (int i = 0; i < connections.size(); i++) {
+            ConnectionGene connection = connections.get(i);
+            highestInnovationNumber = Math.max(highestInnovationNumber, connection.getInnovationNumber());
             connectionGenesMap.put(
                     connection.getInnovationNumber(),
                     new ConnectionGeneData(
                             connection.getInNode().getId(),
                             connection.getOutNode().getId(),
-                            connection.getWeight(),
+                            genome.getConnectionWeight(i),
                             connection.isEnabled(),
                             connection.getInnovationNumber(),
                             connection.isRecurrent()
@@ -46,30 +74,31 @@ public class GeneticEncoding {
         for (NodeGene node : genome.getNodeGenes()) {
             nodeGenesMap.put(
                     node.getId(),
-                    new NodeGeneData(node.getId(), node.getNodeType())
+                    new NodeGeneData(node.getId(), node.getNodeType(), node.getTopologicalOrder())
             );
         }
 
         this.fitness = genome.getFitness();
+        this.sortedInnovationNumbers = sortInnovationNumbers();
 
         for (NodeGene node : genome.getNodeGenes()) {
             if (node instanceof InputNode) {
-                NodeGeneData nodeGeneData = new NodeGeneData(node.getId(), node.getNodeType());
+                NodeGeneData nodeGeneData = new NodeGeneData(node.getId(), node.getNodeType(), node.getTopologicalOrder());
                 inputNodes = Arrays.copyOf(inputNodes, inputNodes.length + 1);
                 inputNodes[inputNodes.length - 1] = nodeGeneData;
             } else if (node instanceof OutputNode) {
-                NodeGeneData nodeGeneData = new NodeGeneData(node.getId(), node.getNodeType());
+                NodeGeneData nodeGeneData = new NodeGeneData(node.getId(), node.getNodeType(), node.getTopologicalOrder());
                 outputNodes = Arrays.copyOf(outputNodes, outputNodes.length + 1);
                 outputNodes[outputNodes.length - 1] = nodeGeneData;
             } else if (node instanceof BiasNode) {
-                NodeGeneData nodeGeneData = new NodeGeneData(node.getId(), node.getNodeType());
+                NodeGeneData nodeGeneData = new NodeGeneData(node.getId(), node.getNodeType(), node.getTopologicalOrder());
                 biasNode = nodeGeneData;
             }
         }
     }
 
-    public GeneticEncoding crossover(GeneticEncoding otherParent) {
-        GeneticEncoding offspring = new GeneticEncoding(config, this.populationId);
+    public GeneticEncoding crossover(GeneticEncoding otherParent, SplittableRandom random) {
+        GeneticEncoding offspring = new GeneticEncoding(config, this.context);
         double thisFitness = this.getFitness();
         double otherFitness = otherParent.getFitness();
 
@@ -92,11 +121,11 @@ public class GeneticEncoding {
 
             if (worstParent.hasInnovationNumber(innovationNumber)) {
                 ConnectionGeneData parent2Gene = worstParent.getConnectionByInnovationNumber(innovationNumber);
-                GeneticEncoding selectedParent = Math.random() < 0.5 ? bestParent : worstParent;
+                GeneticEncoding selectedParent = random.nextDouble() < 0.5 ? bestParent : worstParent;
                 ConnectionGeneData selectedGene = selectedParent.getConnectionByInnovationNumber(innovationNumber);
                 boolean isEnabled =
                         !currentGene.isEnabled() || !parent2Gene.isEnabled()
-                                ? Math.random() > config.getKeepDisabledOnCrossOverRate()
+                                ? random.nextDouble() > config.getKeepDisabledOnCrossOverRate()
                                 : true;
 
                 if (config.getKeepDisabledOnCrossOverRate() == -1.0) {
@@ -107,7 +136,7 @@ public class GeneticEncoding {
             } else {
                 boolean isEnabled =
                         !currentGene.isEnabled()
-                                ? Math.random() > config.getKeepDisabledOnCrossOverRate()
+                                ? random.nextDouble() > config.getKeepDisabledOnCrossOverRate()
                                 : true;
 
                 if (config.getKeepDisabledOnCrossOverRate() == -1.0) {
@@ -119,13 +148,13 @@ public class GeneticEncoding {
         }
 
         for (NodeGeneData inputNode : this.inputNodes) {
-            offspring.addNode(inputNode);
+            offspring.addNode(bestParent.getNodeByID(inputNode.getId()));
         }
         for (NodeGeneData outputNode : this.outputNodes) {
-            offspring.addNode(outputNode);
+            offspring.addNode(bestParent.getNodeByID(outputNode.getId()));
         }
         if (this.biasNode != null) {
-            offspring.addNode(this.biasNode);
+            offspring.addNode(bestParent.getNodeByID(this.biasNode.getId()));
         }
 
         return offspring;
@@ -153,12 +182,14 @@ public class GeneticEncoding {
 
         NodeGeneData inNode = new NodeGeneData(
                 connection.getInNodeID(),
-                parent.getNodeByID(connection.getInNodeID()).getNodeType()
+                parent.getNodeByID(connection.getInNodeID()).getNodeType(),
+                bestParent.getNodeByID(connection.getInNodeID()).getTopologicalOrder()
         );
 
         NodeGeneData outNode = new NodeGeneData(
                 connection.getOutNodeID(),
-                parent.getNodeByID(connection.getOutNodeID()).getNodeType()
+                parent.getNodeByID(connection.getOutNodeID()).getNodeType(),
+                bestParent.getNodeByID(connection.getOutNodeID()).getTopologicalOrder()
         );
 
         offspring.addNode(inNode);
@@ -243,33 +274,40 @@ public class GeneticEncoding {
     }
 
     public Genome buildGenome() {
+        return buildGenome(context.nextRandom(config.getSeed()));
+    }
+
+    public Genome buildGenome(SplittableRandom random) {
+        GenePool genePool = context.getGenePool();
         Map<Integer, NodeGene> newNodeGeneMap = new HashMap<>();
-        ArrayList<NodeGene> newNodeGenes = new ArrayList<>();
+        ArrayList<NodeGene> newNodeGenes = genePool.acquireNodeList(nodeGenesMap.size());
 
         for (NodeGeneData oldNode : nodeGenesMap.values()) {
             NodeGene newNode = null;
             switch (oldNode.getNodeType()) {
                 case INPUT:
-                    newNode = new InputNode(oldNode.getId(), config);
+                    newNode = genePool.acquireInputNode(oldNode.getId(), config);
                     break;
                 case HIDDEN:
-                    newNode = new HiddenNode(oldNode.getId(), config);
+                    newNode = genePool.acquireHiddenNode(oldNode.getId(), config);
                     break;
                 case OUTPUT:
-                    newNode = new OutputNode(oldNode.getId(), config);
+                    newNode = genePool.acquireOutputNode(oldNode.getId(), config);
                     break;
                 case BIAS:
-                    newNode = new BiasNode(oldNode.getId(), config);
+                    double bias = config.getBiasInitialization().initializeBias(random);
+                    newNode = genePool.acquireBiasNode(oldNode.getId(), config, bias);
                     break;
             }
 
             if (newNode != null) {
+                newNode.setTopologicalOrder(oldNode.getTopologicalOrder());
                 newNodeGeneMap.put(newNode.getId(), newNode);
                 newNodeGenes.add(newNode);
             }
         }
 
-        ArrayList<ConnectionGene> newConnectionGenes = new ArrayList<>();
+        ArrayList<ConnectionGene> newConnectionGenes = genePool.acquireConnectionList(connectionGenesMap.size());
         for (ConnectionGeneData oldConnection : connectionGenesMap.values()) {
             NodeGene newInNode = newNodeGeneMap.get(oldConnection.getInNodeID());
             NodeGene newOutNode = newNodeGeneMap.get(oldConnection.getOutNodeID());
@@ -278,7 +316,7 @@ public class GeneticEncoding {
                 throw new IllegalStateException("Error: Node referenced in a connection does not exist.");
             }
 
-            ConnectionGene newConnection = new ConnectionGene(
+            ConnectionGene newConnection = genePool.acquireConnection(
                     newInNode,
                     newOutNode,
                     oldConnection.getWeight(),
@@ -290,13 +328,11 @@ public class GeneticEncoding {
             newConnectionGenes.add(newConnection);
         }
 
-        Genome genome = new Genome(newNodeGenes, newConnectionGenes, config, populationId);
-        genome.checkForRecurrentConnections();
-        return genome;
+        return new Genome(newNodeGenes, newConnectionGenes, config, context, random);
     }
 
-    private int getHighestInnovationNumber() {
-        return connectionGenesMap.keySet().stream().max(Comparator.naturalOrder()).orElse(0);
+    int getHighestInnovationNumber() {
+        return highestInnovationNumber;
     }
 
     private boolean hasInnovationNumber(int innovationNumber) {
@@ -321,6 +357,8 @@ public class GeneticEncoding {
             }
         }
         connectionGenesMap.put(connection.getInnovationNumber(), connection);
+        highestInnovationNumber = Math.max(highestInnovationNumber, connection.getInnovationNumber());
+        sortedInnovationNumbers = null;
     }
 
     private boolean hasNodeID(int nodeId) {
@@ -347,14 +385,39 @@ public class GeneticEncoding {
         }
     }
 
-    private int getNumConnections() {
-        return getConnections().length;
+    int getNumConnections() {
+        return connectionGenesMap.size();
+    }
+
+    int[] getSortedInnovationNumbers() {
+        if (sortedInnovationNumbers == null) {
+            sortedInnovationNumbers = sortInnovationNumbers();
+        }
+        return sortedInnovationNumbers;
+    }
+
+    private int[] sortInnovationNumbers() {
+        int[] innovationNumbers = new int[connectionGenesMap.size()];
+        int i = 0;
+        for (Integer innovationNumber : connectionGenesMap.keySet()) {
+            innovationNumbers[i++] = innovationNumber;
+        }
+        Arrays.sort(innovationNumbers);
+        return innovationNumbers;
+    }
+
+    public GeneticEncoding shallowCopy() {
+        return new GeneticEncoding(this);
     }
 
     public double getFitness() {
         return fitness;
     }
 
+    public void setFitness(double fitness) {
+        this.fitness = fitness;
+    }
+
     public ConnectionGeneData[] getConnections() {
         return connectionGenesMap.values().toArray(new ConnectionGeneData[0]);
     }
@@ -0,0 +1,56 @@
+package com.joshuadamian.neat.core.genome.genes.geneticencoding;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class MinHasher {
+
+    private long[] multipliers;
+    private long[] offsets;
+
+    public MinHasher(int numHashes, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        this.multipliers = new long[numHashes];
+        this.offsets = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            offsets[i] = random.nextLong();
+        }
+    }
+
+    public int[] signature(GeneticEncoding encoding) {
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int innovationNumber : encoding.getSortedInnovationNumbers()) {
+            for (int i = 0; i < signature.length; i++) {
+                int hash = (int) (mix(innovationNumber * multipliers[i] + offsets[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public long[] bandKeys(int[] signature, int bands, int rowsPerBand) {
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = band;
+            for (int row = band * rowsPerBand; row < (band + 1) * rowsPerBand; row++) {
+                key = mix(key * 0x9e3779b97f4a7c15L + signature[row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    public int getNumHashes() {
+        return multipliers.length;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
\ No newline at end of file
@@ -6,10 +6,12 @@ class NodeGeneData {
 
     private int id;
     private NodeType nodeType;
+    private int topologicalOrder;
 
-    protected NodeGeneData(int id, NodeType nodeType) {
+    protected NodeGeneData(int id, NodeType nodeType, int topologicalOrder) {
         this.id = id;
         this.nodeType = nodeType;
+        this.topologicalOrder = topologicalOrder;
     }
 
     protected int getId() {
@@ -19,4 +21,8 @@ class NodeGeneData {
     protected NodeType getNodeType() {
         return nodeType;
     }
+
+    protected int getTopologicalOrder() {
+        return topologicalOrder;
+    }
 }
\ No newline at end of file
@@ -4,19 +4,42 @@ import com.joshuadamian.neat.config.Config;
 import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
 
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 public class BiasNode extends NodeGene {
 
     private double bias;
     private ArrayList<ConnectionGene> outgoingConnections = new ArrayList<>();
 
-    public BiasNode(int id, Config config) {
+    public BiasNode(int id, Config config, SplittableRandom random) {
         super(id, config);
         setNodeType(NodeType.BIAS);
-        this.bias = getConfig().getBiasInitialization().initializeBias();
+        this.bias = getConfig().getBiasInitialization().initializeBias(random);
         setLastOutput(bias);
     }
 
+    public BiasNode(int id, Config config, double bias) {
+        super(id, config);
+        setNodeType(NodeType.BIAS);
+        this.bias = bias;
+        setLastOutput(bias);
+    }
+
+    public double getBias() {
+        return bias;
+    }
+
+    public void recycle(int id, Config config, double bias) {
+        super.recycle(id, config);
+        this.bias = bias;
+        setLastOutput(bias);
+    }
+
+    @Override
+    protected void clearConnections() {
+        outgoingConnections.clear();
+    }
+
     @Override
     public void activate(ArrayList<Double> inputs) {
         throw new UnsupportedOperationException("Bias node can not be activated");
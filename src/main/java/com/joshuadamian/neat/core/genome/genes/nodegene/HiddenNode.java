@@ -63,6 +63,21 @@ public class HiddenNode extends NodeGene {
         }
     }
 
+    @Override
+    public void recycle(int id, Config config) {
+        super.recycle(id, config);
+        this.inputs.clear();
+        this.activationFunction = config.getActivationFunction();
+    }
+
+    @Override
+    protected void clearConnections() {
+        incomingConnections.clear();
+        outgoingConnections.clear();
+        inComingRecurrentConnections.clear();
+        biasConnection = null;
+    }
+
     @Override
     public void addIncomingConnection(ConnectionGene connection) {
         incomingConnections.add(connection);
@@ -74,6 +89,17 @@ public class HiddenNode extends NodeGene {
         }
     }
 
+    @Override
+    public void updateRecurrentConnection(ConnectionGene connection) {
+        if (connection.isRecurrent()) {
+            if (!inComingRecurrentConnections.contains(connection)) {
+                inComingRecurrentConnections.add(connection);
+            }
+        } else {
+            inComingRecurrentConnections.remove(connection);
+        }
+    }
+
     @Override
     public void addOutgoingConnection(ConnectionGene connection) {
         outgoingConnections.add(connection);
@@ -93,6 +119,10 @@ public class HiddenNode extends NodeGene {
         this.activationFunction = activationFunction;
     }
 
+    public ActivationFunction getActivationFunction() {
+        return activationFunction;
+    }
+
     @Override
     public ArrayList<ConnectionGene> getIncomingConnections() {
         return incomingConnections;
@@ -39,6 +39,11 @@ public class InputNode extends NodeGene {
         }
     }
 
+    @Override
+    protected void clearConnections() {
+        outgoingConnections.clear();
+    }
+
     @Override
     public void addOutgoingConnection(ConnectionGene connection) {
         outgoingConnections.add(connection);
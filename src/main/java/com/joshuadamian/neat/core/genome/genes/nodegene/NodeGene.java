@@ -13,6 +13,7 @@ public abstract class NodeGene {
     private ArrayList<Double> inputs = new ArrayList<>();
     private int expectedInputs = 0;
     private int receivedInputs = 0;
+    private int topologicalOrder = -1;
     private Config config;
 
     public NodeGene(int id, Config config) {
@@ -30,6 +31,20 @@ public abstract class NodeGene {
         this.receivedInputs = 0;
     }
 
+    public void recycle(int id, Config config) {
+        this.id = id;
+        this.config = config;
+        this.lastOutput = 0.0;
+        this.inputs.clear();
+        this.expectedInputs = 0;
+        this.receivedInputs = 0;
+        this.topologicalOrder = -1;
+        clearConnections();
+    }
+
+    protected void clearConnections() {
+    }
+
     public void addIncomingConnection(ConnectionGene connection) {
         throw new UnsupportedOperationException("This node does not support incoming connections.");
     }
@@ -46,6 +61,9 @@ public abstract class NodeGene {
         throw new UnsupportedOperationException("This node does not support outgoing connections.");
     }
 
+    public void updateRecurrentConnection(ConnectionGene connection) {
+    }
+
     public boolean acceptsIncomingConnections() {
         return false;
     }
@@ -98,6 +116,14 @@ public abstract class NodeGene {
         receivedInputs = 0;
     }
 
+    public int getTopologicalOrder() {
+        return topologicalOrder;
+    }
+
+    public void setTopologicalOrder(int topologicalOrder) {
+        this.topologicalOrder = topologicalOrder;
+    }
+
     public NodeType getNodeType() {
         return nodeType;
     }
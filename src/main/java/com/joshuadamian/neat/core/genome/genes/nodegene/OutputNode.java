@@ -53,6 +53,21 @@ public class OutputNode extends NodeGene {
         incrementExpectedInputs();
     }
 
+    @Override
+    public void recycle(int id, Config config) {
+        super.recycle(id, config);
+        this.inputs.clear();
+        this.activationFunction = config.getActivationFunction();
+    }
+
+    @Override
+    protected void clearConnections() {
+        incomingConnections.clear();
+        outgoingConnections.clear();
+        inComingRecurrentConnections.clear();
+        biasConnection = null;
+    }
+
     @Override
     public void addIncomingConnection(ConnectionGene connection) {
         incomingConnections.add(connection);
@@ -64,6 +79,17 @@ public class OutputNode extends NodeGene {
         }
     }
 
+    @Override
+    public void updateRecurrentConnection(ConnectionGene connection) {
+        if (connection.isRecurrent()) {
+            if (!inComingRecurrentConnections.contains(connection)) {
+                inComingRecurrentConnections.add(connection);
+            }
+        } else {
+            inComingRecurrentConnections.remove(connection);
+        }
+    }
+
     @Override
     public void addOutgoingConnection(ConnectionGene connection) {
         outgoingConnections.add(connection);
@@ -98,6 +124,10 @@ public class OutputNode extends NodeGene {
         this.activationFunction = activationFunction;
     }
 
+    public ActivationFunction getActivationFunction() {
+        return activationFunction;
+    }
+
     public ArrayList<ConnectionGene> getInComingRecurrentConnections() {
         return this.inComingRecurrentConnections;
     }
@@ -0,0 +1,163 @@
+package com.joshuadamian.neat.core.population;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.CompatibilityChecker;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.GeneticEncoding;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.MinHasher;
+
+import java.util.*;
+import java.util.function.IntSupplier;
+
+public class ApproximateSpeciator {
+
+    private int bands;
+    private int rowsPerBand;
+    private MinHasher minHasher;
+    private CompatibilityChecker compatibilityChecker;
+    private Config config;
+    private long genomesAssigned = 0;
+    private long candidatesTested = 0;
+    private long genomesWithoutCandidates = 0;
+
+    public ApproximateSpeciator(Config config, CompatibilityChecker compatibilityChecker) {
+        this.config = config;
+        this.bands = config.getLshBands();
+        this.rowsPerBand = config.getLshRowsPerBand();
+        this.minHasher = new MinHasher(bands * rowsPerBand, config.getSeed());
+        this.compatibilityChecker = compatibilityChecker;
+    }
+
+    // Species are only compared against genomes sharing at least one LSH band of their representative's
+    // MinHash signature. Candidates are tested in species order, so the first compatible candidate wins
+    // just like in the exact pass; a compatible species that shares no band is missed.
+    public void assign(List<Genome> genomes, ArrayList<Species> species, ParentSpeciesLookup parentSpeciesLookup,
+                       IntSupplier nextSpeciesId) {
+        ArrayList<Map<Long, ArrayList<Integer>>> buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+        ArrayList<GeneticEncoding> representativeEncodings = new ArrayList<>(species.size());
+        ArrayList<long[]> representativeKeys = new ArrayList<>(species.size());
+        for (int i = 0; i < species.size(); i++) {
+            Genome representative = species.get(i).getRepresentative();
+            GeneticEncoding encoding = representative != null ? representative.getGeneticEncoding() : null;
+            long[] keys = encoding != null ? bandKeys(encoding) : null;
+            representativeEncodings.add(encoding);
+            representativeKeys.add(keys);
+            addToBuckets(buckets, keys, i);
+        }
+
+        int[] seen = new int[0];
+        int stamp = 0;
+        ArrayList<Integer> candidates = new ArrayList<>();
+        for (Genome genome : genomes) {
+            GeneticEncoding encoding = genome.getGeneticEncoding();
+            long[] keys = bandKeys(encoding);
+            genomesAssigned++;
+            int match = -1;
+            int parentSpecies = parentSpeciesLookup != null ? parentSpeciesLookup.indexOf(genome) : -1;
+            if (parentSpecies >= 0 && representativeEncodings.get(parentSpecies) != null) {
+                candidatesTested++;
+                boolean hit = compatibilityChecker.isCompatible(encoding, representativeEncodings.get(parentSpecies));
+                parentSpeciesLookup.record(hit);
+                if (hit) {
+                    match = parentSpecies;
+                }
+            }
+
+            if (match < 0) {
+                if (seen.length < species.size()) {
+                    seen = Arrays.copyOf(seen, Math.max(species.size(), seen.length * 2));
+                }
+                stamp++;
+                candidates.clear();
+                for (int band = 0; band < bands; band++) {
+                    ArrayList<Integer> bucket = buckets.get(band).get(keys[band]);
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (int index : bucket) {
+                        if (seen[index] != stamp && index != parentSpecies) {
+                            seen[index] = stamp;
+                            candidates.add(index);
+                        }
+                    }
+                }
+                Collections.sort(candidates);
+                if (candidates.isEmpty()) {
+                    genomesWithoutCandidates++;
+                }
+                for (int i = 0; match < 0 && i < candidates.size(); i++) {
+                    int index = candidates.get(i);
+                    candidatesTested++;
+                    if (compatibilityChecker.isCompatible(encoding, representativeEncodings.get(index))) {
+                        match = index;
+                    }
+                }
+            }
+
+            if (match >= 0) {
+                Species matchingSpecies = species.get(match);
+                matchingSpecies.addGenome(genome);
+                if (matchingSpecies.getRepresentative() == genome) {
+                    removeFromBuckets(buckets, representativeKeys.get(match), match);
+                    representativeEncodings.set(match, encoding);
+                    representativeKeys.set(match, keys);
+                    addToBuckets(buckets, keys, match);
+                }
+            } else {
+                Species newSpecies = new Species(nextSpeciesId.getAsInt(), config);
+                newSpecies.addGenome(genome);
+                species.add(newSpecies);
+                representativeEncodings.add(encoding);
+                representativeKeys.add(keys);
+                addToBuckets(buckets, keys, species.size() - 1);
+            }
+        }
+    }
+
+    private long[] bandKeys(GeneticEncoding encoding) {
+        return minHasher.bandKeys(minHasher.signature(encoding), bands, rowsPerBand);
+    }
+
+    private void addToBuckets(ArrayList<Map<Long, ArrayList<Integer>>> buckets, long[] keys, int index) {
+        if (keys == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets.get(band).computeIfAbsent(keys[band], key -> new ArrayList<>()).add(index);
+        }
+    }
+
+    private void removeFromBuckets(ArrayList<Map<Long, ArrayList<Integer>>> buckets, long[] keys, int index) {
+        if (keys == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            ArrayList<Integer> bucket = buckets.get(band).get(keys[band]);
+            if (bucket != null) {
+                bucket.remove(Integer.valueOf(index));
+                if (bucket.isEmpty()) {
+                    buckets.get(band).remove(keys[band]);
+                }
+            }
+        }
+    }
+
+    public long getGenomesAssigned() {
+        return genomesAssigned;
+    }
+
+    public long getCandidatesTested() {
+        return candidatesTested;
+    }
+
+    public long getGenomesWithoutCandidates() {
+        return genomesWithoutCandidates;
+    }
+
+    public double getAverageCandidatesTested() {
+        return genomesAssigned == 0 ? 0.0 : (double) candidatesTested / genomesAssigned;
+    }
+}
\ No newline at end of file
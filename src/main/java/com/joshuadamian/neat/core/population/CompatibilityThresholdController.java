@@ -0,0 +1,64 @@
+package com.joshuadamian.neat.core.population;
+
+import com.joshuadamian.neat.config.Config;
+
+import java.util.ArrayList;
+
+public class CompatibilityThresholdController {
+
+    private Config config;
+    private double threshold;
+    private double adjustment = 0;
+    private ArrayList<Integer> speciesCounts = new ArrayList<>();
+    private ArrayList<Double> thresholds = new ArrayList<>();
+
+    public CompatibilityThresholdController(Config config) {
+        this.config = config;
+        this.threshold = config.getCompatibilityThreshold();
+    }
+
+    // Moves the threshold up when there are too many species and down when there are too few, by at most
+    // thresholdAdjustmentStep per generation. The species count lags behind the threshold, so while it is
+    // already moving toward the target range the previous adjustment only decays instead of growing.
+    public double update(int speciesCount) {
+        int minSpecies = config.getTargetSpeciesMin();
+        int maxSpecies = config.getTargetSpeciesMax();
+        double step = config.getThresholdAdjustmentStep();
+        double targetAdjustment = 0;
+        if (speciesCount > maxSpecies) {
+            targetAdjustment = step * Math.min(1.0, (double) (speciesCount - maxSpecies) / Math.max(maxSpecies, 1));
+        } else if (speciesCount < minSpecies) {
+            targetAdjustment = -step * Math.min(1.0, (double) (minSpecies - speciesCount) / Math.max(minSpecies, 1));
+        }
+
+        int previousCount = speciesCounts.isEmpty() ? -1 : speciesCounts.get(speciesCounts.size() - 1);
+        boolean approaching = previousCount >= 0
+                && ((speciesCount > maxSpecies && speciesCount < previousCount)
+                || (speciesCount < minSpecies && speciesCount > previousCount));
+        double damping = config.getThresholdDamping();
+        if (targetAdjustment == 0) {
+            adjustment = 0;
+        } else if (approaching) {
+            adjustment = damping * adjustment;
+        } else {
+            adjustment = damping * adjustment + (1 - damping) * targetAdjustment;
+        }
+        threshold = Math.max(config.getMinCompatibilityThreshold(), threshold + adjustment);
+
+        speciesCounts.add(speciesCount);
+        thresholds.add(threshold);
+        return threshold;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public ArrayList<Integer> getSpeciesCounts() {
+        return speciesCounts;
+    }
+
+    public ArrayList<Double> getThresholds() {
+        return thresholds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.joshuadamian.neat.core.population;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.CompatibilityChecker;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.GeneticEncoding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+// Speciates genomes one at a time while the rest of the generation is still being produced. The species
+// are only read when speciation begins and only written by apply(), so reproduction can keep choosing
+// parents from them in the meantime. Genomes must be added in population order; the assignment is then
+// the same as the sequential pass.
+public class IncrementalSpeciator {
+
+    private Config config;
+    private CompatibilityChecker compatibilityChecker;
+    private ParentSpeciesLookup parentSpeciesLookup;
+    private int existingSpecies;
+    private ArrayList<GeneticEncoding> representativeEncodings = new ArrayList<>();
+    private boolean[] filled = new boolean[0];
+    private ArrayList<Genome> genomes = new ArrayList<>();
+    private ArrayList<Integer> matches = new ArrayList<>();
+
+    public IncrementalSpeciator(Config config, CompatibilityChecker compatibilityChecker) {
+        this.config = config;
+        this.compatibilityChecker = compatibilityChecker;
+    }
+
+    public void begin(List<Species> species, ParentSpeciesLookup parentSpeciesLookup) {
+        this.parentSpeciesLookup = parentSpeciesLookup;
+        this.existingSpecies = species.size();
+        representativeEncodings.clear();
+        for (Species s : species) {
+            Genome representative = s.getRepresentative();
+            representativeEncodings.add(representative != null ? representative.getGeneticEncoding() : null);
+        }
+        filled = new boolean[existingSpecies];
+        genomes.clear();
+        matches.clear();
+    }
+
+    public void add(Genome genome) {
+        GeneticEncoding encoding = genome.getGeneticEncoding();
+        int match = -1;
+        int parentSpecies = parentSpeciesLookup != null ? parentSpeciesLookup.indexOf(genome) : -1;
+        if (parentSpecies >= 0 && representativeEncodings.get(parentSpecies) != null) {
+            boolean hit = compatibilityChecker.isCompatible(encoding, representativeEncodings.get(parentSpecies));
+            parentSpeciesLookup.record(hit);
+            if (hit) {
+                match = parentSpecies;
+            }
+        }
+        for (int i = 0; match < 0 && i < representativeEncodings.size(); i++) {
+            GeneticEncoding representativeEncoding = representativeEncodings.get(i);
+            if (i != parentSpecies && representativeEncoding != null
+                    && compatibilityChecker.isCompatible(encoding, representativeEncoding)) {
+                match = i;
+            }
+        }
+        if (match < 0) {
+            match = representativeEncodings.size();
+            representativeEncodings.add(encoding);
+        } else if (match < existingSpecies && !filled[match]) {
+            // The first genome added to a cleared species becomes its representative.
+            filled[match] = true;
+            representativeEncodings.set(match, encoding);
+        }
+        genomes.add(genome);
+        matches.add(match);
+    }
+
+    public void apply(ArrayList<Species> species, IntSupplier nextSpeciesId) {
+        if (species.size() != existingSpecies) {
+            throw new IllegalStateException("Species changed while genomes were being speciated");
+        }
+        for (Species s : species) {
+            s.clearGenomes();
+        }
+        for (int i = 0; i < genomes.size(); i++) {
+            int match = matches.get(i);
+            if (match == species.size()) {
+                species.add(new Species(nextSpeciesId.getAsInt(), config));
+            }
+            species.get(match).addGenome(genomes.get(i));
+        }
+        genomes.clear();
+        matches.clear();
+    }
+
+    public int size() {
+        return genomes.size();
+    }
+}
\ No newline at end of file
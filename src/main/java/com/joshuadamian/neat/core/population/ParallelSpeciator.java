@@ -0,0 +1,161 @@
+package com.joshuadamian.neat.core.population;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.CompatibilityChecker;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.GeneticEncoding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntSupplier;
+
+public class ParallelSpeciator {
+
+    private static final int GENOMES_PER_TASK = 64;
+    private static final int UNKNOWN = -1;
+
+    private Config config;
+    private int threads;
+    private CompatibilityChecker compatibilityChecker;
+    private ForkJoinPool pool;
+
+    public ParallelSpeciator(Config config, int threads, CompatibilityChecker compatibilityChecker) {
+        this.config = config;
+        this.threads = threads;
+        this.compatibilityChecker = compatibilityChecker;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    // Genomes are assigned in population order, exactly like the sequential pass. For each block the
+    // distances to the representatives at the start of the block are computed in parallel; representatives
+    // replaced or created while the block is assigned are compared sequentially.
+    public void assign(List<Genome> genomes, ArrayList<Species> species, ParentSpeciesLookup parentSpeciesLookup,
+                       IntSupplier nextSpeciesId) {
+        ArrayList<GeneticEncoding> representativeEncodings = new ArrayList<>(species.size());
+        for (Species s : species) {
+            Genome representative = s.getRepresentative();
+            representativeEncodings.add(representative != null ? representative.getGeneticEncoding() : null);
+        }
+
+        int blockSize = threads * GENOMES_PER_TASK;
+        GeneticEncoding[] encodings = new GeneticEncoding[blockSize];
+        int[] parentSpecies = new int[blockSize];
+        boolean[] parentMatches = new boolean[blockSize];
+        int[] firstMatches = new int[blockSize];
+
+        for (int blockStart = 0; blockStart < genomes.size(); blockStart += blockSize) {
+            int blockEnd = Math.min(blockStart + blockSize, genomes.size());
+            GeneticEncoding[] snapshot = representativeEncodings.toArray(new GeneticEncoding[0]);
+            boolean[] replaced = new boolean[snapshot.length];
+            for (int j = blockStart; j < blockEnd; j++) {
+                parentSpecies[j - blockStart] = parentSpeciesLookup != null
+                        ? parentSpeciesLookup.indexOf(genomes.get(j))
+                        : -1;
+            }
+            matchBlock(genomes, blockStart, blockEnd, snapshot, encodings, parentSpecies, parentMatches, firstMatches);
+
+            for (int j = blockStart; j < blockEnd; j++) {
+                Genome genome = genomes.get(j);
+                GeneticEncoding encoding = encodings[j - blockStart];
+                int parent = parentSpecies[j - blockStart];
+                int firstMatch = firstMatches[j - blockStart];
+                int match = -1;
+                if (parent >= 0 && representativeEncodings.get(parent) != null) {
+                    boolean hit = replaced[parent]
+                            ? compatibilityChecker.isCompatible(encoding, representativeEncodings.get(parent))
+                            : parentMatches[j - blockStart];
+                    parentSpeciesLookup.record(hit);
+                    if (hit) {
+                        match = parent;
+                    }
+                }
+                for (int i = 0; match < 0 && i < species.size(); i++) {
+                    if (i == parent) {
+                        continue;
+                    }
+                    if (firstMatch != UNKNOWN && i <= firstMatch && i < snapshot.length && !replaced[i]) {
+                        if (i == firstMatch) {
+                            match = i;
+                        }
+                        continue;
+                    }
+                    GeneticEncoding representativeEncoding = representativeEncodings.get(i);
+                    if (representativeEncoding != null
+                            && compatibilityChecker.isCompatible(encoding, representativeEncoding)) {
+                        match = i;
+                    }
+                }
+
+                if (match >= 0) {
+                    Species matchingSpecies = species.get(match);
+                    matchingSpecies.addGenome(genome);
+                    if (matchingSpecies.getRepresentative() == genome) {
+                        representativeEncodings.set(match, encoding);
+                        if (match < snapshot.length) {
+                            replaced[match] = true;
+                        }
+                    }
+                } else {
+                    Species newSpecies = new Species(nextSpeciesId.getAsInt(), config);
+                    newSpecies.addGenome(genome);
+                    species.add(newSpecies);
+                    representativeEncodings.add(encoding);
+                }
+            }
+        }
+        for (int i = 0; i < encodings.length; i++) {
+            encodings[i] = null;
+        }
+    }
+
+    private void matchBlock(List<Genome> genomes, int blockStart, int blockEnd, GeneticEncoding[] snapshot,
+                            GeneticEncoding[] encodings, int[] parentSpecies, boolean[] parentMatches,
+                            int[] firstMatches) {
+        ArrayList<Callable<Void>> tasks = new ArrayList<>();
+        for (int taskStart = blockStart; taskStart < blockEnd; taskStart += GENOMES_PER_TASK) {
+            int start = taskStart;
+            int end = Math.min(taskStart + GENOMES_PER_TASK, blockEnd);
+            tasks.add(() -> {
+                for (int j = start; j < end; j++) {
+                    int k = j - blockStart;
+                    GeneticEncoding encoding = genomes.get(j).getGeneticEncoding();
+                    int parent = parentSpecies[k];
+                    encodings[k] = encoding;
+                    parentMatches[k] = parent >= 0 && snapshot[parent] != null
+                            && compatibilityChecker.isCompatible(encoding, snapshot[parent]);
+                    firstMatches[k] = parentMatches[k] ? UNKNOWN : findFirstMatch(encoding, snapshot, parent);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Speciation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Speciation failed", e.getCause());
+        }
+    }
+
+    private int findFirstMatch(GeneticEncoding encoding, GeneticEncoding[] representativeEncodings, int skipped) {
+        for (int i = 0; i < representativeEncodings.length; i++) {
+            if (i != skipped && representativeEncodings[i] != null
+                    && compatibilityChecker.isCompatible(encoding, representativeEncodings[i])) {
+                return i;
+            }
+        }
+        return representativeEncodings.length;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.joshuadamian.neat.core.population;
+
+import com.joshuadamian.neat.core.genome.Genome;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ParentSpeciesLookup {
+
+    private Map<Integer, Integer> speciesIndices = new HashMap<>();
+    private long genomes = 0;
+    private long attempts = 0;
+    private long hits = 0;
+
+    public void update(List<Species> species) {
+        speciesIndices.clear();
+        for (int i = 0; i < species.size(); i++) {
+            speciesIndices.put(species.get(i).getID(), i);
+        }
+    }
+
+    public int indexOf(Genome genome) {
+        genomes++;
+        Integer index = speciesIndices.get(genome.getParentSpeciesId());
+        return index != null ? index : -1;
+    }
+
+    public void record(boolean hit) {
+        attempts++;
+        if (hit) {
+            hits++;
+        }
+    }
+
+    public void resetStatistics() {
+        genomes = 0;
+        attempts = 0;
+        hits = 0;
+    }
+
+    public long getGenomes() {
+        return genomes;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public double getHitRate() {
+        return genomes == 0 ? 0.0 : (double) hits / genomes;
+    }
+}
\ No newline at end of file
@@ -1,16 +1,22 @@
 package com.joshuadamian.neat.core.population;
 
+import com.joshuadamian.neat.util.GenePool;
 import com.joshuadamian.neat.util.GenomeBuilder;
-import com.joshuadamian.neat.util.StaticManager;
+import com.joshuadamian.neat.util.EvolutionContext;
 import com.joshuadamian.neat.config.Config;
 import com.joshuadamian.neat.core.genome.Genome;
-import com.joshuadamian.neat.util.trackers.PopulationTracker;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.CompatibilityChecker;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.GeneticEncoding;
 import com.joshuadamian.neat.util.trackers.innovationtracker.InnovationTracker;
+import com.joshuadamian.neat.util.trackers.lineage.LineageLog;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 
-public class Population {
+public class Population implements AutoCloseable {
 
     private ArrayList<Genome> genomes = new ArrayList<>();
     private ArrayList<Species> species = new ArrayList<>();
@@ -21,56 +27,190 @@ public class Population {
     private boolean allStagnated = false;
     private boolean stale = false;
     private InnovationTracker innovationTracker;
+    private LineageLog lineageLog;
     private int generation = 0;
     private int populationId;
+    private EvolutionContext context;
     private int speciesCounter = 1;
     private double bestFitness = 0;
     private double age_since_last_improvement = 0;
+    private SplittableRandom random;
+    private CompatibilityChecker compatibilityChecker;
+    private ParallelSpeciator parallelSpeciator;
+    private ApproximateSpeciator approximateSpeciator;
+    private ParentSpeciesLookup parentSpeciesLookup = new ParentSpeciesLookup();
+    private CompatibilityThresholdController thresholdController;
+    private Set<Genome> unevaluatedGenomes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Map<Genome, Integer> births = new IdentityHashMap<>();
+    private int replacements = 0;
+    private IncrementalSpeciator incrementalSpeciator;
+    private ExecutorService speciationExecutor;
+    private Consumer<Genome> offspringConsumer;
 
     public Population(Config config) {
+        this(config, config.getSeed());
+    }
+
+    public Population(Config config, long seed) {
         this.config = config;
-        this.populationId = PopulationTracker.getNextPopulationId();
-        this.innovationTracker = StaticManager.getInnovationTracker(this.populationId);
+        this.context = EvolutionContext.open();
+        this.populationId = context.getPopulationId();
+        this.innovationTracker = context.getInnovationTracker();
+        this.lineageLog = context.getLineageLog();
+        this.random = new SplittableRandom(seed);
+        this.compatibilityChecker = new CompatibilityChecker(config);
 
-        Genome baseGenome = GenomeBuilder.buildGenome(config, this.populationId);
+        Genome baseGenome = GenomeBuilder.buildGenome(config, context, random.split());
 
+        boolean drawConnectivity = config.getInitialConnectivity().isDrawnPerGenome();
         for (int i = 0; i < config.getPopulationSize(); i++) {
-            genomes.add(baseGenome.copy());
+            genomes.add(drawConnectivity
+                    ? GenomeBuilder.buildGenome(baseGenome, random.split())
+                    : baseGenome.copy(random.split()));
         }
-        for (Genome genome : genomes) {
-            genome.reinitializeWeights();
+        if (config.getBootstrapThreads() > 1) {
+            reinitializeWeightsInParallel(config.getBootstrapThreads());
+        } else {
+            for (Genome genome : genomes) {
+                genome.reinitializeWeights();
+            }
+        }
+        if (config.getLineageLogging()) {
+            lineageLog.recordRoot(baseGenome, generation);
+            for (Genome genome : genomes) {
+                lineageLog.record(genome, generation);
+            }
         }
 
         newGeneration = new Genome[config.getPopulationSize()];
     }
 
+    // Every copy draws its weights from its own generator, so the weights do not depend on how the genomes
+    // are split between threads. Genome ids were already handed out in order by the copies above.
+    private void reinitializeWeightsInParallel(int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            int chunkSize = (genomes.size() + threads - 1) / threads;
+            ArrayList<Future<?>> futures = new ArrayList<>();
+            for (int start = 0; start < genomes.size(); start += chunkSize) {
+                List<Genome> chunk = genomes.subList(start, Math.min(start + chunkSize, genomes.size()));
+                futures.add(executor.submit(() -> {
+                    // The context's gene pool is not thread-safe, and is empty before the first generation anyway.
+                    GenePool genePool = new GenePool();
+                    for (Genome genome : chunk) {
+                        genome.materialize(genePool);
+                        genome.reinitializeWeights();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Population bootstrap was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Population bootstrap failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     public void speciate() {
         for (Species s : species) {
             s.clearGenomes();
         }
-        for (Genome genome : genomes) {
-            boolean speciesFound = false;
-            for (Species species : species) {
-                Genome representative = species.getRepresentative();
-                if (representative != null
-                        && genome.getGeneticEncoding().calculateCompatibilityDistance(representative.getGeneticEncoding())
-                        < config.getCompatibilityThreshold()) {
-                    species.addGenome(genome);
-                    speciesFound = true;
-                    break;
+        ParentSpeciesLookup lookup = prepareSpeciation();
+        if (config.getApproximateSpeciation()) {
+            if (approximateSpeciator == null) {
+                approximateSpeciator = new ApproximateSpeciator(config, compatibilityChecker);
+            }
+            approximateSpeciator.assign(genomes, species, lookup, () -> speciesCounter++);
+        } else if (config.getSpeciationThreads() > 1) {
+            if (parallelSpeciator == null || parallelSpeciator.getThreads() != config.getSpeciationThreads()) {
+                if (parallelSpeciator != null) {
+                    parallelSpeciator.shutdown();
                 }
+                parallelSpeciator = new ParallelSpeciator(config, config.getSpeciationThreads(), compatibilityChecker);
             }
-            if (!speciesFound) {
-                Species newSpecies = new Species(speciesCounter++, config);
-                newSpecies.addGenome(genome);
-                species.add(newSpecies);
+            parallelSpeciator.assign(genomes, species, lookup, () -> speciesCounter++);
+        } else {
+            assignSpecies(genomes, species, config, compatibilityChecker, lookup, () -> speciesCounter++);
+        }
+        finishSpeciation();
+    }
+
+    private ParentSpeciesLookup prepareSpeciation() {
+        if (config.getAdaptiveCompatibilityThreshold()) {
+            if (thresholdController == null) {
+                thresholdController = new CompatibilityThresholdController(config);
+            }
+            compatibilityChecker.setCompatibilityThreshold(thresholdController.getThreshold());
+        } else {
+            compatibilityChecker.setCompatibilityThreshold(config.getCompatibilityThreshold());
+        }
+        if (config.getParentSpeciesFirst()) {
+            parentSpeciesLookup.update(species);
+            return parentSpeciesLookup;
+        }
+        return null;
+    }
+
+    private void finishSpeciation() {
+        for (Species s : species) {
+            for (Genome genome : s.getGenomes()) {
+                genome.setSpeciesId(s.getID());
             }
         }
         species = species.stream()
                 .filter(s -> !s.getGenomes().isEmpty())
                 .collect(Collectors.toCollection(ArrayList::new));
         for (Species s : species) {
-            s.setRandomRepresentative();
+            s.setRandomRepresentative(random);
+        }
+        if (thresholdController != null && config.getAdaptiveCompatibilityThreshold()) {
+            thresholdController.update(species.size());
+        }
+    }
+
+    static void assignSpecies(List<Genome> genomes, ArrayList<Species> species, Config config,
+                              CompatibilityChecker compatibilityChecker, ParentSpeciesLookup parentSpeciesLookup,
+                              IntSupplier nextSpeciesId) {
+        ArrayList<GeneticEncoding> representativeEncodings = new ArrayList<>(species.size());
+        for (Species s : species) {
+            Genome representative = s.getRepresentative();
+            representativeEncodings.add(representative != null ? representative.getGeneticEncoding() : null);
+        }
+        for (Genome genome : genomes) {
+            GeneticEncoding encoding = genome.getGeneticEncoding();
+            int match = -1;
+            int parentSpecies = parentSpeciesLookup != null ? parentSpeciesLookup.indexOf(genome) : -1;
+            if (parentSpecies >= 0 && representativeEncodings.get(parentSpecies) != null) {
+                boolean hit = compatibilityChecker.isCompatible(encoding, representativeEncodings.get(parentSpecies));
+                parentSpeciesLookup.record(hit);
+                if (hit) {
+                    match = parentSpecies;
+                }
+            }
+            for (int i = 0; match < 0 && i < species.size(); i++) {
+                GeneticEncoding representativeEncoding = representativeEncodings.get(i);
+                if (i != parentSpecies && representativeEncoding != null
+                        && compatibilityChecker.isCompatible(encoding, representativeEncoding)) {
+                    match = i;
+                }
+            }
+            if (match >= 0) {
+                Species matchingSpecies = species.get(match);
+                matchingSpecies.addGenome(genome);
+                if (matchingSpecies.getRepresentative() == genome) {
+                    representativeEncodings.set(match, encoding);
+                }
+            } else {
+                Species newSpecies = new Species(nextSpeciesId.getAsInt(), config);
+                newSpecies.addGenome(genome);
+                species.add(newSpecies);
+                representativeEncodings.add(encoding);
+            }
         }
     }
 
@@ -82,6 +222,9 @@ public class Population {
         eliteGenomes.clear();
 
         innovationTracker.reset();
+        if (config.getCompiledEvaluation()) {
+            context.getTopologyInterner().nextGeneration();
+        }
         saveEliteGenomes();
         handleStagnation();
         removeWorstGenomes();
@@ -89,10 +232,85 @@ public class Population {
         generateOffspring();
         putBackElite();
 
+        if (config.getGenePooling()) {
+            releaseGenomes(genomes);
+        }
         genomes.clear();
         Collections.addAll(genomes, newGeneration);
 
         generation++;
+        if (config.getLineageLogging()) {
+            for (Genome genome : genomes) {
+                lineageLog.record(genome, generation);
+            }
+        }
+    }
+
+    // Does the work of evolve(), evaluatePopulation() and speciate() with the three overlapping. Each genome
+    // of the new generation goes to the evaluation executor as soon as it is bred, and is speciated on a
+    // separate thread while the rest are still being bred. Speciation does not depend on fitness, so it can
+    // finish while the last evaluations run. Population and species end up exactly as with the three calls
+    // in sequence.
+    public void evolvePipelined(ExecutorService evaluationExecutor) {
+        boolean incremental = !config.getApproximateSpeciation() && config.getSpeciationThreads() <= 1;
+        if (incremental && incrementalSpeciator == null) {
+            incrementalSpeciator = new IncrementalSpeciator(config, compatibilityChecker);
+            speciationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "incremental-speciation");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        ArrayList<Future<?>> evaluations = new ArrayList<>(config.getPopulationSize());
+        ArrayList<Future<?>> speciationTasks = new ArrayList<>(config.getPopulationSize());
+        boolean[] speciationStarted = {false};
+        offspringConsumer = genome -> {
+            // Evaluated genomes must not share genes with genomes that are still being bred from.
+            genome.materialize();
+            genome.getGeneticEncoding();
+            evaluations.add(evaluationExecutor.submit(genome::calculateFitness));
+            if (incremental) {
+                // The species do not change any more once the first genome of the new generation is bred.
+                if (!speciationStarted[0]) {
+                    incrementalSpeciator.begin(species, prepareSpeciation());
+                    speciationStarted[0] = true;
+                }
+                speciationTasks.add(speciationExecutor.submit(() -> incrementalSpeciator.add(genome)));
+            }
+        };
+        try {
+            evolve();
+        } finally {
+            offspringConsumer = null;
+        }
+
+        if (incremental) {
+            if (!speciationStarted[0]) {
+                incrementalSpeciator.begin(species, prepareSpeciation());
+            }
+            awaitAll(speciationTasks);
+            incrementalSpeciator.apply(species, () -> speciesCounter++);
+            finishSpeciation();
+        } else {
+            speciate();
+        }
+        awaitAll(evaluations);
+        for (Species s : species) {
+            s.setAdjustedFitness();
+        }
+    }
+
+    private void awaitAll(List<Future<?>> futures) {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pipelined generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pipelined generation failed", e.getCause());
+        }
     }
 
     public void evaluatePopulation() {
@@ -114,6 +332,268 @@ public class Population {
         }
     }
 
+    public void immigrate(List<Genome> immigrants) {
+        int count = Math.min(immigrants.size(), genomes.size());
+        if (count == 0) {
+            return;
+        }
+        sortGenomes();
+        List<Genome> worstGenomes = genomes.subList(genomes.size() - count, genomes.size());
+        ArrayList<Genome> replacedGenomes = new ArrayList<>(worstGenomes);
+        worstGenomes.clear();
+        genomes.addAll(immigrants.subList(0, count));
+        if (config.getGenePooling()) {
+            releaseGenomes(replacedGenomes);
+        }
+    }
+
+    // Steady-state evolution replaces one genome at a time instead of a whole generation. It starts from an
+    // evaluated population; every offspring handed out by replaceWorstGenome() counts as unevaluated until
+    // completeEvaluation() is called for it, and is neither replaced nor chosen as a parent before that.
+    public void startSteadyState() {
+        unevaluatedGenomes.clear();
+        births.clear();
+        replacements = 0;
+        speciate();
+        for (Species s : species) {
+            s.setAdjustedFitness();
+        }
+    }
+
+    public void completeEvaluation(Genome genome) {
+        unevaluatedGenomes.remove(genome);
+        Species s = speciesOf(genome);
+        if (s != null) {
+            s.setAdjustedFitness();
+        }
+    }
+
+    // Removes the eligible genome with the lowest adjusted fitness and returns its replacement, bred from a
+    // species chosen with probability proportional to the average fitness of its evaluated members. Returns
+    // null if there is no evaluated genome left to replace or breed from.
+    public Genome replaceWorstGenome() {
+        Genome worst = null;
+        boolean worstEligible = false;
+        int evaluatedCount = 0;
+        for (Genome genome : genomes) {
+            if (unevaluatedGenomes.contains(genome)) {
+                continue;
+            }
+            evaluatedCount++;
+            Integer birth = births.get(genome);
+            boolean eligible = birth == null || replacements - birth >= config.getSteadyStateMinimumAge();
+            if (worst == null || (eligible && !worstEligible)
+                    || (eligible == worstEligible && genome.getAdjustedFitness() < worst.getAdjustedFitness())) {
+                worst = genome;
+                worstEligible = eligible;
+            }
+        }
+        if (evaluatedCount < 2) {
+            return null;
+        }
+
+        removeGenome(worst);
+        Species parentSpecies = selectSpeciesByFitness();
+        Genome offspring = breedOffspring(parentSpecies);
+        // Genomes are evaluated concurrently, so the offspring must not share genes with a parent.
+        offspring.materialize();
+        offspring.setFitness(0);
+        genomes.add(offspring);
+        unevaluatedGenomes.add(offspring);
+        births.put(offspring, replacements);
+        speciateOffspring(offspring);
+        if (config.getGenePooling()) {
+            releaseGenomes(Collections.singletonList(worst));
+        }
+
+        replacements++;
+        if (replacements % config.getPopulationSize() == 0) {
+            generation++;
+            innovationTracker.reset();
+            if (config.getCompiledEvaluation()) {
+                context.getTopologyInterner().nextGeneration();
+            }
+            if (thresholdController != null && config.getAdaptiveCompatibilityThreshold()) {
+                thresholdController.update(species.size());
+                compatibilityChecker.setCompatibilityThreshold(thresholdController.getThreshold());
+            }
+        }
+        if (config.getLineageLogging()) {
+            lineageLog.record(offspring, generation);
+        }
+        return offspring;
+    }
+
+    private void removeGenome(Genome genome) {
+        genomes.remove(genome);
+        births.remove(genome);
+        Species s = speciesOf(genome);
+        if (s == null) {
+            return;
+        }
+        s.getGenomes().remove(genome);
+        if (s.getGenomes().isEmpty()) {
+            species.remove(s);
+        } else {
+            if (s.getRepresentative() == genome) {
+                s.setRandomRepresentative(random);
+            }
+            s.setAdjustedFitness();
+        }
+    }
+
+    private Species selectSpeciesByFitness() {
+        double[] averageFitness = new double[species.size()];
+        double totalFitness = 0;
+        int candidates = 0;
+        for (int i = 0; i < species.size(); i++) {
+            double fitness = 0;
+            int evaluated = 0;
+            for (Genome genome : species.get(i).getGenomes()) {
+                if (!unevaluatedGenomes.contains(genome)) {
+                    fitness += genome.getFitness();
+                    evaluated++;
+                }
+            }
+            if (evaluated > 0) {
+                averageFitness[i] = Math.max(fitness / evaluated, Double.MIN_VALUE);
+                totalFitness += averageFitness[i];
+                candidates++;
+            } else {
+                averageFitness[i] = -1;
+            }
+        }
+        double target = random.nextDouble() * totalFitness;
+        Species selected = null;
+        for (int i = 0; i < species.size(); i++) {
+            if (averageFitness[i] < 0) {
+                continue;
+            }
+            selected = species.get(i);
+            target -= averageFitness[i];
+            if (target < 0) {
+                break;
+            }
+        }
+        if (candidates == 0) {
+            throw new IllegalStateException("No species has an evaluated genome to breed from");
+        }
+        return selected;
+    }
+
+    private Genome breedOffspring(Species s) {
+        ArrayList<Genome> parents = evaluatedGenomes(s);
+        if (parents.size() == 1 || random.nextDouble() < config.getMutateOnlyProb()) {
+            Genome offspring = parents.get(random.nextInt(parents.size())).copy(random.split());
+            offspring.mutate();
+            return offspring;
+        }
+
+        Genome parent1 = parents.get(random.nextInt(parents.size()));
+        Genome parent2;
+        if (random.nextDouble() < config.getInterspeciesMatingRate() && species.size() > 1) {
+            Species randomSpecies = species.get(random.nextInt(species.size()));
+            ArrayList<Genome> otherParents = randomSpecies != s ? evaluatedGenomes(randomSpecies) : parents;
+            parent2 = otherParents.isEmpty() ? parents.get(random.nextInt(parents.size()))
+                    : otherParents.get(random.nextInt(otherParents.size()));
+        } else {
+            parent2 = parents.get(random.nextInt(parents.size()));
+            while (parent2 == parent1) {
+                parent2 = parents.get(random.nextInt(parents.size()));
+            }
+        }
+        Genome offspring = parent1.crossover(parent2, random.split());
+        if (random.nextDouble() <= config.getMutationRate()) {
+            offspring.mutate();
+        }
+        return offspring;
+    }
+
+    private ArrayList<Genome> evaluatedGenomes(Species s) {
+        ArrayList<Genome> evaluated = new ArrayList<>(s.getGenomes().size());
+        for (Genome genome : s.getGenomes()) {
+            if (!unevaluatedGenomes.contains(genome)) {
+                evaluated.add(genome);
+            }
+        }
+        return evaluated;
+    }
+
+    private void speciateOffspring(Genome offspring) {
+        GeneticEncoding encoding = offspring.getGeneticEncoding();
+        Species match = speciesOf(offspring.getParentSpeciesId());
+        if (match == null || match.getRepresentative() == null
+                || !compatibilityChecker.isCompatible(encoding, match.getRepresentative().getGeneticEncoding())) {
+            match = null;
+            for (Species s : species) {
+                if (s.getRepresentative() != null
+                        && compatibilityChecker.isCompatible(encoding, s.getRepresentative().getGeneticEncoding())) {
+                    match = s;
+                    break;
+                }
+            }
+        }
+        if (match == null) {
+            match = new Species(speciesCounter++, config);
+            species.add(match);
+        }
+        match.addGenome(offspring);
+        offspring.setSpeciesId(match.getID());
+        match.setAdjustedFitness();
+    }
+
+    private Species speciesOf(Genome genome) {
+        Species s = speciesOf(genome.getSpeciesId());
+        return s != null && s.getGenomes().contains(genome) ? s : null;
+    }
+
+    private Species speciesOf(int speciesId) {
+        for (Species s : species) {
+            if (s.getID() == speciesId) {
+                return s;
+            }
+        }
+        return null;
+    }
+
+    public int getReplacements() {
+        return replacements;
+    }
+
+    public int getNumUnevaluatedGenomes() {
+        return unevaluatedGenomes.size();
+    }
+
+    // Releases the population's context and speciation threads. The genomes can still be evaluated
+    // afterwards, but the population can not evolve any more.
+    @Override
+    public void close() {
+        if (parallelSpeciator != null) {
+            parallelSpeciator.shutdown();
+            parallelSpeciator = null;
+        }
+        if (speciationExecutor != null) {
+            speciationExecutor.shutdown();
+            speciationExecutor = null;
+            incrementalSpeciator = null;
+        }
+        context.close();
+    }
+
+    public PopulationStore toPopulationStore() {
+        PopulationStore store = new PopulationStore(config, context);
+        store.addAll(genomes);
+        return store;
+    }
+
+    public void loadPopulationStore(PopulationStore store) {
+        if (config.getGenePooling()) {
+            releaseGenomes(genomes);
+        }
+        genomes = store.getGenomes();
+        species.clear();
+    }
+
     public Genome getBestGenome() {
         Genome bestGenome = genomes.get(0);
         for (Genome genome : genomes) {
@@ -131,9 +611,16 @@ public class Population {
         removeGenomesWithoutSpecies();
     }
 
+    private void addToNewGeneration(Genome genome) {
+        newGeneration[newGenerationIndex++] = genome;
+        if (offspringConsumer != null) {
+            offspringConsumer.accept(genome);
+        }
+    }
+
     private void putBackElite() {
         for (Genome genome : eliteGenomes) {
-            newGeneration[newGenerationIndex++] = genome;
+            addToNewGeneration(genome);
         }
     }
 
@@ -143,7 +630,7 @@ public class Population {
 
         for (Species species : species) {
             if (species.getGenomes().size() > 5) {
-                eliteGenomes.add(species.getBestGenome().copy());
+                eliteGenomes.add(species.getBestGenome().copy(random.split()));
             }
         }
 
@@ -159,7 +646,7 @@ public class Population {
                 }
             }
             if (!isDuplicate) {
-                eliteGenomes.add(candidate.copy());
+                eliteGenomes.add(candidate.copy(random.split()));
             }
             index++;
         }
@@ -171,34 +658,32 @@ public class Population {
             ArrayList<Genome> mutatedonlyGenomes = new ArrayList<>();
 
             for (int i = 0; i < offspringCount; i++) {
-                Random mutateRandom = new Random();
                 int genomesInSpecies = s.getGenomes().size();
 
-                if (mutateRandom.nextDouble() < config.getMutateOnlyProb()) {
-                    Genome selectedGenome = s.getGenomes().get((int) (Math.random() * genomesInSpecies));
+                if (random.nextDouble() < config.getMutateOnlyProb()) {
+                    Genome selectedGenome = s.getGenomes().get(random.nextInt(genomesInSpecies));
                     while (genomesInSpecies > 1 && mutatedonlyGenomes.contains(selectedGenome) && i < genomesInSpecies) {
-                        selectedGenome = s.getGenomes().get((int) (Math.random() * genomesInSpecies));
+                        selectedGenome = s.getGenomes().get(random.nextInt(genomesInSpecies));
                     }
                     mutatedonlyGenomes.add(selectedGenome);
-                    Genome offspring = selectedGenome.copy();
+                    Genome offspring = selectedGenome.copy(random.split());
                     offspring.mutate();
-                    newGeneration[newGenerationIndex++] = offspring;
+                    addToNewGeneration(offspring);
                     continue;
                 }
 
-                Random random = new Random();
                 if (random.nextDouble() < config.getInterspeciesMatingRate() && species.size() > 1) {
                     Species randomSpecies = species.get(random.nextInt(species.size()));
                     while (randomSpecies == s) {
                         randomSpecies = species.get(random.nextInt(species.size()));
                     }
-                    Genome parent1 = s.getGenomes().get((int) (Math.random() * s.getGenomes().size()));
-                    Genome parent2 = randomSpecies.getGenomes().get((int) (Math.random() * randomSpecies.getGenomes().size()));
-                    Genome offspring = parent1.crossover(parent2);
-                    if (Math.random() <= config.getMutationRate()) {
+                    Genome parent1 = s.getGenomes().get(random.nextInt(s.getGenomes().size()));
+                    Genome parent2 = randomSpecies.getGenomes().get(random.nextInt(randomSpecies.getGenomes().size()));
+                    Genome offspring = parent1.crossover(parent2, random.split());
+                    if (random.nextDouble() <= config.getMutationRate()) {
                         offspring.mutate();
                     }
-                    newGeneration[newGenerationIndex++] = offspring;
+                    addToNewGeneration(offspring);
                     continue;
                 }
 
@@ -209,21 +694,21 @@ public class Population {
 
                 if (s.getGenomes().size() > 1) {
                     while (!parentsFound) {
-                        parent1 = s.getGenomes().get((int) (Math.random() * s.getGenomes().size()));
-                        parent2 = s.getGenomes().get((int) (Math.random() * s.getGenomes().size()));
+                        parent1 = s.getGenomes().get(random.nextInt(s.getGenomes().size()));
+                        parent2 = s.getGenomes().get(random.nextInt(s.getGenomes().size()));
                         if (parent1 != parent2) {
                             parentsFound = true;
                         }
                     }
-                    offspring = parent1.crossover(parent2);
-                    if (Math.random() <= config.getMutationRate()) {
+                    offspring = parent1.crossover(parent2, random.split());
+                    if (random.nextDouble() <= config.getMutationRate()) {
                         offspring.mutate();
                     }
                 } else {
-                    offspring = s.getGenomes().get(0).copy();
+                    offspring = s.getGenomes().get(0).copy(random.split());
                     offspring.mutate();
                 }
-                newGeneration[newGenerationIndex++] = offspring;
+                addToNewGeneration(offspring);
             }
         }
     }
@@ -291,9 +776,32 @@ public class Population {
         for (Species s : species) {
             survivingGenomes.addAll(s.getGenomes());
         }
+        if (config.getGenePooling()) {
+            Set<Genome> survivors = Collections.newSetFromMap(new IdentityHashMap<>());
+            survivors.addAll(survivingGenomes);
+            ArrayList<Genome> droppedGenomes = new ArrayList<>();
+            for (Genome genome : genomes) {
+                if (!survivors.contains(genome)) {
+                    droppedGenomes.add(genome);
+                }
+            }
+            releaseGenomes(droppedGenomes);
+        }
         genomes = survivingGenomes;
     }
 
+    private void releaseGenomes(List<Genome> droppedGenomes) {
+        Set<Genome> representatives = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Species s : species) {
+            representatives.add(s.getRepresentative());
+        }
+        for (Genome genome : droppedGenomes) {
+            if (!representatives.contains(genome)) {
+                genome.release();
+            }
+        }
+    }
+
     private void sortSpecies() {
         species.sort(Comparator.comparingDouble(Species::getBestFitness).reversed());
     }
@@ -350,6 +858,14 @@ public class Population {
         return generation;
     }
 
+    public int getPopulationId() {
+        return populationId;
+    }
+
+    public EvolutionContext getContext() {
+        return context;
+    }
+
     public void setConfig(Config config) {
         this.config = config;
     }
@@ -365,4 +881,24 @@ public class Population {
     public ArrayList<Genome> getGenomes() {
         return genomes;
     }
+
+    public CompatibilityChecker getCompatibilityChecker() {
+        return compatibilityChecker;
+    }
+
+    public ApproximateSpeciator getApproximateSpeciator() {
+        return approximateSpeciator;
+    }
+
+    public ParentSpeciesLookup getParentSpeciesLookup() {
+        return parentSpeciesLookup;
+    }
+
+    public CompatibilityThresholdController getThresholdController() {
+        return thresholdController;
+    }
+
+    public LineageLog getLineageLog() {
+        return lineageLog;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,666 @@
+package com.joshuadamian.neat.core.population;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
+import com.joshuadamian.neat.core.genome.genes.nodegene.*;
+import com.joshuadamian.neat.util.GenePool;
+import com.joshuadamian.neat.util.EvolutionContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+public class PopulationStore {
+
+    private static final int MAGIC = 0x4E454154;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * 4;
+    private static final int GENOME_RECORD_BYTES = 4 + 8 + 8 + 4 + 4;
+    private static final int NODE_RECORD_BYTES = 4 + 1 + 4;
+    private static final int CONNECTION_RECORD_BYTES = 4 + 4 + 4 + 8;
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+
+    private Config config;
+    private EvolutionContext context;
+    private boolean offHeap;
+    private boolean closed = false;
+
+    private int genomeCount = 0;
+    private int genomeCapacity = 16;
+    private ByteBuffer genomeIds;
+    private ByteBuffer fitness;
+    private ByteBuffer biases;
+    private ByteBuffer nodeOffsets;
+    private ByteBuffer connectionOffsets;
+    private Genome[] views = new Genome[16]; // Rebuilt genomes that propagate() and crossover() evaluate, per index
+
+    private int nodeCount = 0;
+    private int nodeCapacity = 64;
+    private ByteBuffer nodeIds;
+    private ByteBuffer nodeTypes;
+    private ByteBuffer topologicalOrders;
+
+    private int connectionCount = 0;
+    private int connectionCapacity = 64;
+    private ByteBuffer innovationNumbers;
+    private ByteBuffer inNodeIds;
+    private ByteBuffer outNodeIds;
+    private ByteBuffer innovationOrder;
+    private ByteBuffer weights;
+    private ByteBuffer enabledBits;
+    private ByteBuffer recurrentBits;
+
+    public PopulationStore(Config config, int populationId) {
+        this(config, EvolutionContext.of(populationId), config.getOffHeapStorage());
+    }
+
+    public PopulationStore(Config config, int populationId, boolean offHeap) {
+        this(config, EvolutionContext.of(populationId), offHeap);
+    }
+
+    public PopulationStore(Config config, EvolutionContext context) {
+        this(config, context, config.getOffHeapStorage());
+    }
+
+    public PopulationStore(Config config, EvolutionContext context, boolean offHeap) {
+        this.config = config;
+        this.context = context;
+        this.offHeap = offHeap;
+        allocateColumns();
+    }
+
+    public int add(Genome genome) {
+        checkOpen();
+        List<NodeGene> nodes = genome.getNodeGenes();
+        List<ConnectionGene> connections = genome.getConnectionGenes();
+
+        ensureGenomeCapacity(genomeCount + 1);
+        ensureNodeCapacity(nodeCount + nodes.size());
+        ensureConnectionCapacity(connectionCount + connections.size());
+
+        double bias = Double.NaN;
+        for (NodeGene node : nodes) {
+            nodeIds.putInt(nodeCount << 2, node.getId());
+            nodeTypes.put(nodeCount, (byte) node.getNodeType().ordinal());
+            topologicalOrders.putInt(nodeCount << 2, node.getTopologicalOrder());
+            nodeCount++;
+            if (node instanceof BiasNode) {
+                bias = ((BiasNode) node).getBias();
+            }
+        }
+        for (int i = 0; i < connections.size(); i++) {
+            ConnectionGene connection = connections.get(i);
+            innovationNumbers.putInt(connectionCount << 2, connection.getInnovationNumber());
+            inNodeIds.putInt(connectionCount << 2, connection.getInNode().getId());
+            outNodeIds.putInt(connectionCount << 2, connection.getOutNode().getId());
+            weights.putDouble(connectionCount << 3, genome.getConnectionWeight(i));
+            setBit(enabledBits, connectionCount, connection.isEnabled());
+            setBit(recurrentBits, connectionCount, connection.isRecurrent());
+            connectionCount++;
+        }
+        sortByInnovation(connectionStart(genomeCount), connectionCount);
+
+        genomeIds.putInt(genomeCount << 2, genome.getID());
+        fitness.putDouble(genomeCount << 3, genome.getFitness());
+        biases.putDouble(genomeCount << 3, bias);
+        nodeOffsets.putInt((genomeCount + 1) << 2, nodeCount);
+        connectionOffsets.putInt((genomeCount + 1) << 2, connectionCount);
+        return genomeCount++;
+    }
+
+    public void addAll(List<Genome> genomes) {
+        for (Genome genome : genomes) {
+            add(genome);
+        }
+    }
+
+    // Rebuilds the genome at the index under its stored id, without taking a new id from the context. The caller
+    // owns the result and may change it; the store is only changed through updateWeights().
+    public Genome getGenome(int index) {
+        checkIndex(index);
+        GenePool genePool = context.getGenePool();
+        int nodeStart = nodeStart(index);
+        int nodeEnd = nodeStart(index + 1);
+        int connectionStart = connectionStart(index);
+        int connectionEnd = connectionStart(index + 1);
+        double bias = biases.getDouble(index << 3);
+
+        ArrayList<NodeGene> nodes = genePool.acquireNodeList(nodeEnd - nodeStart);
+        Map<Integer, NodeGene> nodeMapping = new HashMap<>((nodeEnd - nodeStart) * 2);
+        for (int i = nodeStart; i < nodeEnd; i++) {
+            NodeType nodeType = NODE_TYPES[nodeTypes.get(i)];
+            int nodeId = nodeIds.getInt(i << 2);
+            NodeGene node = nodeType == NodeType.BIAS
+                    ? genePool.acquireBiasNode(nodeId, config, bias)
+                    : genePool.acquireNode(nodeType, nodeId, config);
+            node.setTopologicalOrder(topologicalOrders.getInt(i << 2));
+            nodes.add(node);
+            nodeMapping.put(node.getId(), node);
+        }
+
+        ArrayList<ConnectionGene> connections = genePool.acquireConnectionList(connectionEnd - connectionStart);
+        for (int i = connectionStart; i < connectionEnd; i++) {
+            NodeGene inNode = nodeMapping.get(inNodeIds.getInt(i << 2));
+            NodeGene outNode = nodeMapping.get(outNodeIds.getInt(i << 2));
+            if (inNode == null || outNode == null) {
+                throw new IllegalStateException("Error: Node referenced in a connection does not exist.");
+            }
+            connections.add(genePool.acquireConnection(
+                    inNode,
+                    outNode,
+                    weights.getDouble(i << 3),
+                    getBit(enabledBits, i),
+                    innovationNumbers.getInt(i << 2),
+                    getBit(recurrentBits, i),
+                    config
+            ));
+        }
+
+        int genomeId = genomeIds.getInt(index << 2);
+        Genome genome = new Genome(nodes, connections, config, context,
+                new SplittableRandom(config.getSeed() ^ (((long) context.getPopulationId() << 32) | (genomeId & 0xFFFFFFFFL))),
+                genomeId);
+        genome.setFitness(fitness.getDouble(index << 3));
+        return genome;
+    }
+
+    // The genome at the index, rebuilt once and kept until its weights change. Only used internally, where it is
+    // never mutated.
+    private Genome view(int index) {
+        checkIndex(index);
+        Genome genome = views[index];
+        if (genome == null) {
+            genome = getGenome(index);
+            views[index] = genome;
+        }
+        return genome;
+    }
+
+    public ArrayList<Genome> getGenomes() {
+        ArrayList<Genome> genomes = new ArrayList<>(genomeCount);
+        for (int i = 0; i < genomeCount; i++) {
+            genomes.add(getGenome(i));
+        }
+        return genomes;
+    }
+
+    public void updateWeights(int index, Genome genome) {
+        checkIndex(index);
+        int connectionStart = connectionStart(index);
+        List<ConnectionGene> connections = genome.getConnectionGenes();
+        if (connections.size() != connectionStart(index + 1) - connectionStart) {
+            throw new IllegalArgumentException("Genome " + genome.getID() + " does not match the stored topology");
+        }
+        for (int i = 0; i < connections.size(); i++) {
+            weights.putDouble((connectionStart + i) << 3, genome.getConnectionWeight(i));
+            setBit(enabledBits, connectionStart + i, connections.get(i).isEnabled());
+        }
+        fitness.putDouble(index << 3, genome.getFitness());
+        views[index] = null;
+    }
+
+    public Genome crossover(int first, int second, SplittableRandom random) {
+        return view(first).crossover(view(second), random);
+    }
+
+    // Every call starts from a reset state, as if the genome had just been rebuilt.
+    public double[] propagate(int index, double[] inputs) {
+        Genome genome = view(index);
+        genome.resetState();
+        return genome.propagate(inputs);
+    }
+
+    public double[] propagate(int index, int[] inputIndices, double[] inputValues) {
+        Genome genome = view(index);
+        genome.resetState();
+        return genome.propagate(inputIndices, inputValues);
+    }
+
+    public void mutateWeights(SplittableRandom random) {
+        double weightMutationRate = config.getWeightMutationRate();
+        for (int i = 0; i < genomeCount; i++) {
+            if (random.nextDouble() < weightMutationRate) {
+                mutateWeights(i, random);
+            }
+        }
+    }
+
+    public void mutateWeights(int index, SplittableRandom random) {
+        checkIndex(index);
+        double minWeight = config.getMinWeight();
+        double maxWeight = config.getMaxWeight();
+        double perturbRange = config.getPerturbRange();
+
+        for (int i = connectionStart(index); i < connectionStart(index + 1); i++) {
+            double newWeight;
+            if (random.nextDouble() < 0.1) {
+                newWeight = config.getWeightInitialization().initializeWeight(random);
+            } else {
+                double perturb = (random.nextDouble() * 2 * perturbRange) - perturbRange;
+                newWeight = weights.getDouble(i << 3) + perturb;
+            }
+            weights.putDouble(i << 3, Math.max(minWeight, Math.min(newWeight, maxWeight)));
+        }
+        views[index] = null;
+    }
+
+    public double calculateCompatibilityDistance(int first, int second) {
+        checkIndex(first);
+        checkIndex(second);
+        int i = connectionStart(first);
+        int firstEnd = connectionStart(first + 1);
+        int j = connectionStart(second);
+        int secondEnd = connectionStart(second + 1);
+        int firstSize = firstEnd - i;
+        int secondSize = secondEnd - j;
+
+        int firstHighest = firstSize == 0 ? -1 : innovationAt(sortedGene(firstEnd - 1));
+        int secondHighest = secondSize == 0 ? -1 : innovationAt(sortedGene(secondEnd - 1));
+        int comparisonLimit = Math.min(firstHighest, secondHighest);
+
+        int disjointGenes = 0;
+        int excessGenes = 0;
+        int matchingGenes = 0;
+        double totalWeightDifference = 0.0;
+
+        while (i < firstEnd || j < secondEnd) {
+            int firstGene = i < firstEnd ? sortedGene(i) : -1;
+            int secondGene = j < secondEnd ? sortedGene(j) : -1;
+            int innovationNumber;
+            if (secondGene < 0 || (firstGene >= 0 && innovationAt(firstGene) < innovationAt(secondGene))) {
+                innovationNumber = innovationAt(firstGene);
+                i++;
+            } else if (firstGene < 0 || innovationAt(secondGene) < innovationAt(firstGene)) {
+                innovationNumber = innovationAt(secondGene);
+                j++;
+            } else {
+                totalWeightDifference += Math.abs(weights.getDouble(firstGene << 3) - weights.getDouble(secondGene << 3));
+                matchingGenes++;
+                i++;
+                j++;
+                continue;
+            }
+            if (innovationNumber <= comparisonLimit) {
+                disjointGenes++;
+            } else {
+                excessGenes++;
+            }
+        }
+
+        int maxGenes = Math.max(firstSize, secondSize);
+        maxGenes = maxGenes < 20 ? 1 : maxGenes;
+        double averageWeightDifference = matchingGenes == 0 ? 0.0 : totalWeightDifference / matchingGenes;
+        return ((config.getC1() * excessGenes) / maxGenes)
+                + ((config.getC2() * disjointGenes) / maxGenes)
+                + (config.getC3() * averageWeightDifference);
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        checkOpen();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(genomeCount);
+        out.writeInt(nodeCount);
+        out.writeInt(connectionCount);
+
+        for (int i = 0; i < genomeCount; i++) {
+            out.writeInt(genomeIds.getInt(i << 2));
+            out.writeDouble(fitness.getDouble(i << 3));
+            out.writeDouble(biases.getDouble(i << 3));
+            out.writeInt(nodeStart(i + 1));
+            out.writeInt(connectionStart(i + 1));
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            out.writeInt(nodeIds.getInt(i << 2));
+            out.writeByte(nodeTypes.get(i));
+            out.writeInt(topologicalOrders.getInt(i << 2));
+        }
+        for (int i = 0; i < connectionCount; i++) {
+            out.writeInt(innovationNumbers.getInt(i << 2));
+            out.writeInt(inNodeIds.getInt(i << 2));
+            out.writeInt(outNodeIds.getInt(i << 2));
+            out.writeDouble(weights.getDouble(i << 3));
+        }
+        int words = wordsFor(connectionCount);
+        for (int i = 0; i < words; i++) {
+            out.writeLong(enabledBits.getLong(i << 3));
+            out.writeLong(recurrentBits.getLong(i << 3));
+        }
+        out.flush();
+    }
+
+    public static PopulationStore readFrom(DataInputStream in, Config config, int populationId) throws IOException {
+        return readFrom(in, config, EvolutionContext.of(populationId), config.getOffHeapStorage());
+    }
+
+    public static PopulationStore readFrom(DataInputStream in, Config config, int populationId,
+                                           boolean offHeap) throws IOException {
+        return readFrom(in, config, EvolutionContext.of(populationId), offHeap);
+    }
+
+    public static PopulationStore readFrom(DataInputStream in, Config config, EvolutionContext context,
+                                           boolean offHeap) throws IOException {
+        return readFrom(in, config, context, offHeap, -1);
+    }
+
+    // Reads a store from a complete payload, such as a batch of migrants, whose counts are checked against its
+    // length before anything is allocated.
+    public static PopulationStore readFrom(byte[] payload, Config config, EvolutionContext context,
+                                           boolean offHeap) throws IOException {
+        return readFrom(new DataInputStream(new ByteArrayInputStream(payload)), config, context, offHeap, payload.length);
+    }
+
+    // The counts come from the input, so nothing is allocated for them up front unless the input length is known
+    // to hold them; from a stream of unknown length the columns only grow as records arrive.
+    private static PopulationStore readFrom(DataInputStream in, Config config, EvolutionContext context,
+                                            boolean offHeap, long length) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a population store");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported population store version: " + version);
+        }
+        int genomeCount = in.readInt();
+        int nodeCount = in.readInt();
+        int connectionCount = in.readInt();
+        if (genomeCount < 0 || nodeCount < 0 || connectionCount < 0) {
+            throw new IOException("Negative population store count: " + genomeCount + " genomes, "
+                    + nodeCount + " nodes, " + connectionCount + " connections");
+        }
+        long required = HEADER_BYTES
+                + (long) genomeCount * GENOME_RECORD_BYTES
+                + (long) nodeCount * NODE_RECORD_BYTES
+                + (long) connectionCount * CONNECTION_RECORD_BYTES
+                + (long) wordsFor(connectionCount) * 16;
+        if (length >= 0 && required > length) {
+            throw new IOException("Population store claims " + required + " bytes but the input holds " + length);
+        }
+
+        PopulationStore store = new PopulationStore(config, context, offHeap);
+        if (length >= 0) {
+            store.ensureGenomeCapacity(genomeCount);
+            store.ensureNodeCapacity(nodeCount);
+            store.ensureConnectionCapacity(connectionCount);
+        }
+        int previousNodeOffset = 0;
+        int previousConnectionOffset = 0;
+        for (int i = 0; i < genomeCount; i++) {
+            store.ensureGenomeCapacity(i + 1);
+            store.genomeIds.putInt(i << 2, in.readInt());
+            store.fitness.putDouble(i << 3, in.readDouble());
+            store.biases.putDouble(i << 3, in.readDouble());
+            int nodeOffset = in.readInt();
+            int connectionOffset = in.readInt();
+            if (nodeOffset < previousNodeOffset || nodeOffset > nodeCount
+                    || connectionOffset < previousConnectionOffset || connectionOffset > connectionCount) {
+                throw new IOException("Genome " + i + " has offsets outside the stored nodes and connections");
+            }
+            store.nodeOffsets.putInt((i + 1) << 2, nodeOffset);
+            store.connectionOffsets.putInt((i + 1) << 2, connectionOffset);
+            previousNodeOffset = nodeOffset;
+            previousConnectionOffset = connectionOffset;
+        }
+        if (previousNodeOffset != nodeCount || previousConnectionOffset != connectionCount) {
+            throw new IOException("Stored nodes and connections do not all belong to a genome");
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            store.ensureNodeCapacity(i + 1);
+            store.nodeIds.putInt(i << 2, in.readInt());
+            byte nodeType = in.readByte();
+            if (nodeType < 0 || nodeType >= NODE_TYPES.length) {
+                throw new IOException("Unknown node type: " + nodeType);
+            }
+            store.nodeTypes.put(i, nodeType);
+            store.topologicalOrders.putInt(i << 2, in.readInt());
+        }
+        for (int i = 0; i < connectionCount; i++) {
+            store.ensureConnectionCapacity(i + 1);
+            store.innovationNumbers.putInt(i << 2, in.readInt());
+            store.inNodeIds.putInt(i << 2, in.readInt());
+            store.outNodeIds.putInt(i << 2, in.readInt());
+            store.weights.putDouble(i << 3, in.readDouble());
+        }
+        int words = wordsFor(connectionCount);
+        for (int i = 0; i < words; i++) {
+            store.enabledBits.putLong(i << 3, in.readLong());
+            store.recurrentBits.putLong(i << 3, in.readLong());
+        }
+        for (int i = 0; i < genomeCount; i++) {
+            store.sortByInnovation(store.connectionStart(i), store.connectionStart(i + 1));
+        }
+        store.genomeCount = genomeCount;
+        store.nodeCount = nodeCount;
+        store.connectionCount = connectionCount;
+        return store;
+    }
+
+    public void clear() {
+        checkOpen();
+        Arrays.fill(views, null);
+        genomeCount = 0;
+        nodeCount = 0;
+        connectionCount = 0;
+        for (int i = 0; i < enabledBits.capacity(); i++) {
+            enabledBits.put(i, (byte) 0);
+            recurrentBits.put(i, (byte) 0);
+        }
+    }
+
+    public void close() {
+        views = null;
+        genomeCount = 0;
+        nodeCount = 0;
+        connectionCount = 0;
+        genomeIds = null;
+        fitness = null;
+        biases = null;
+        nodeOffsets = null;
+        connectionOffsets = null;
+        nodeIds = null;
+        nodeTypes = null;
+        topologicalOrders = null;
+        innovationNumbers = null;
+        inNodeIds = null;
+        outNodeIds = null;
+        innovationOrder = null;
+        weights = null;
+        enabledBits = null;
+        recurrentBits = null;
+        closed = true;
+    }
+
+    public long getMemoryFootprint() {
+        if (closed) {
+            return 0;
+        }
+        return (long) genomeCapacity * GENOME_RECORD_BYTES
+                + (long) nodeCapacity * NODE_RECORD_BYTES
+                + (long) connectionCapacity * (CONNECTION_RECORD_BYTES + 4)
+                + (long) enabledBits.capacity() * 2;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int size() {
+        return genomeCount;
+    }
+
+    public int getNumNodes(int index) {
+        checkIndex(index);
+        return nodeStart(index + 1) - nodeStart(index);
+    }
+
+    public int getNumConnections(int index) {
+        checkIndex(index);
+        return connectionStart(index + 1) - connectionStart(index);
+    }
+
+    public int getGenomeId(int index) {
+        checkIndex(index);
+        return genomeIds.getInt(index << 2);
+    }
+
+    public double getFitness(int index) {
+        checkIndex(index);
+        return fitness.getDouble(index << 3);
+    }
+
+    public void setFitness(int index, double fitness) {
+        checkIndex(index);
+        this.fitness.putDouble(index << 3, fitness);
+        if (views[index] != null) {
+            views[index].setFitness(fitness);
+        }
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public int getPopulationId() {
+        return context.getPopulationId();
+    }
+
+    public EvolutionContext getContext() {
+        return context;
+    }
+
+    private int nodeStart(int index) {
+        return nodeOffsets.getInt(index << 2);
+    }
+
+    private int connectionStart(int index) {
+        return connectionOffsets.getInt(index << 2);
+    }
+
+    private int sortedGene(int position) {
+        return innovationOrder.getInt(position << 2);
+    }
+
+    private int innovationAt(int gene) {
+        return innovationNumbers.getInt(gene << 2);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Population store has been closed");
+        }
+    }
+
+    private void checkIndex(int index) {
+        checkOpen();
+        if (index < 0 || index >= genomeCount) {
+            throw new IndexOutOfBoundsException("Genome index " + index + " out of bounds for size " + genomeCount);
+        }
+    }
+
+    private void allocateColumns() {
+        genomeIds = allocate(genomeCapacity << 2);
+        fitness = allocate(genomeCapacity << 3);
+        biases = allocate(genomeCapacity << 3);
+        nodeOffsets = allocate((genomeCapacity + 1) << 2);
+        connectionOffsets = allocate((genomeCapacity + 1) << 2);
+        nodeIds = allocate(nodeCapacity << 2);
+        nodeTypes = allocate(nodeCapacity);
+        topologicalOrders = allocate(nodeCapacity << 2);
+        innovationNumbers = allocate(connectionCapacity << 2);
+        inNodeIds = allocate(connectionCapacity << 2);
+        outNodeIds = allocate(connectionCapacity << 2);
+        innovationOrder = allocate(connectionCapacity << 2);
+        weights = allocate(connectionCapacity << 3);
+        enabledBits = allocate(wordsFor(connectionCapacity) << 3);
+        recurrentBits = allocate(wordsFor(connectionCapacity) << 3);
+    }
+
+    private ByteBuffer allocate(int bytes) {
+        ByteBuffer buffer = offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    private ByteBuffer resize(ByteBuffer buffer, int bytes) {
+        ByteBuffer resized = allocate(bytes);
+        ByteBuffer source = buffer.duplicate();
+        source.clear();
+        resized.put(source);
+        resized.clear();
+        return resized;
+    }
+
+    private void ensureGenomeCapacity(int capacity) {
+        if (capacity <= genomeCapacity) {
+            return;
+        }
+        genomeCapacity = grow(genomeCapacity, capacity);
+        genomeIds = resize(genomeIds, genomeCapacity << 2);
+        fitness = resize(fitness, genomeCapacity << 3);
+        biases = resize(biases, genomeCapacity << 3);
+        nodeOffsets = resize(nodeOffsets, (genomeCapacity + 1) << 2);
+        connectionOffsets = resize(connectionOffsets, (genomeCapacity + 1) << 2);
+        views = Arrays.copyOf(views, genomeCapacity);
+    }
+
+    private void ensureNodeCapacity(int capacity) {
+        if (capacity <= nodeCapacity) {
+            return;
+        }
+        nodeCapacity = grow(nodeCapacity, capacity);
+        nodeIds = resize(nodeIds, nodeCapacity << 2);
+        nodeTypes = resize(nodeTypes, nodeCapacity);
+        topologicalOrders = resize(topologicalOrders, nodeCapacity << 2);
+    }
+
+    private void ensureConnectionCapacity(int capacity) {
+        if (capacity <= connectionCapacity) {
+            return;
+        }
+        connectionCapacity = grow(connectionCapacity, capacity);
+        innovationNumbers = resize(innovationNumbers, connectionCapacity << 2);
+        inNodeIds = resize(inNodeIds, connectionCapacity << 2);
+        outNodeIds = resize(outNodeIds, connectionCapacity << 2);
+        innovationOrder = resize(innovationOrder, connectionCapacity << 2);
+        weights = resize(weights, connectionCapacity << 3);
+        enabledBits = resize(enabledBits, wordsFor(connectionCapacity) << 3);
+        recurrentBits = resize(recurrentBits, wordsFor(connectionCapacity) << 3);
+    }
+
+    private void sortByInnovation(int start, int end) {
+        for (int i = start; i < end; i++) {
+            int j = i - 1;
+            while (j >= start && innovationAt(sortedGene(j)) > innovationAt(i)) {
+                innovationOrder.putInt((j + 1) << 2, sortedGene(j));
+                j--;
+            }
+            innovationOrder.putInt((j + 1) << 2, i);
+        }
+    }
+
+    private static int grow(int current, int required) {
+        return Math.max(required, current + (current >> 1));
+    }
+
+    private static int wordsFor(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static boolean getBit(ByteBuffer bits, int index) {
+        return (bits.getLong((index >>> 6) << 3) & (1L << index)) != 0;
+    }
+
+    private static void setBit(ByteBuffer bits, int index, boolean value) {
+        int offset = (index >>> 6) << 3;
+        long word = bits.getLong(offset);
+        bits.putLong(offset, value ? word | (1L << index) : word & ~(1L << index));
+    }
+}
\ No newline at end of file
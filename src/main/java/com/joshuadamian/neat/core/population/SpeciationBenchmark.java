@@ -0,0 +1,140 @@
+package com.joshuadamian.neat.core.population;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.genome.genes.geneticencoding.CompatibilityChecker;
+
+import java.util.*;
+
+public class SpeciationBenchmark {
+
+    private int numGenomes;
+    private int exactSpecies;
+    private int approximateSpecies;
+    private long exactNanos;
+    private long approximateNanos;
+    private double averageCandidatesTested;
+    private double randIndex;
+    private double pairRecall;
+
+    private SpeciationBenchmark() {
+    }
+
+    // Speciates the genomes from scratch, once exactly and once with MinHash/LSH candidates, and compares
+    // the two partitions pair by pair.
+    public static SpeciationBenchmark run(Config config, List<Genome> genomes) {
+        for (Genome genome : genomes) {
+            genome.getGeneticEncoding();
+        }
+        SpeciationBenchmark benchmark = new SpeciationBenchmark();
+        benchmark.numGenomes = genomes.size();
+
+        ArrayList<Species> exact = new ArrayList<>();
+        int[] exactCounter = {1};
+        long start = System.nanoTime();
+        Population.assignSpecies(genomes, exact, config, new CompatibilityChecker(config), null,
+                () -> exactCounter[0]++);
+        benchmark.exactNanos = System.nanoTime() - start;
+
+        ArrayList<Species> approximate = new ArrayList<>();
+        int[] approximateCounter = {1};
+        ApproximateSpeciator speciator = new ApproximateSpeciator(config, new CompatibilityChecker(config));
+        start = System.nanoTime();
+        speciator.assign(genomes, approximate, null, () -> approximateCounter[0]++);
+        benchmark.approximateNanos = System.nanoTime() - start;
+
+        benchmark.exactSpecies = exact.size();
+        benchmark.approximateSpecies = approximate.size();
+        benchmark.averageCandidatesTested = speciator.getAverageCandidatesTested();
+        benchmark.compare(genomes, exact, approximate);
+        return benchmark;
+    }
+
+    private void compare(List<Genome> genomes, List<Species> exact, List<Species> approximate) {
+        Map<Genome, Integer> exactLabels = labels(exact);
+        Map<Genome, Integer> approximateLabels = labels(approximate);
+        Map<Long, Long> cells = new HashMap<>();
+        for (Genome genome : genomes) {
+            long cell = ((long) exactLabels.get(genome) << 32) | approximateLabels.get(genome);
+            cells.merge(cell, 1L, Long::sum);
+        }
+
+        double togetherInBoth = 0;
+        for (long count : cells.values()) {
+            togetherInBoth += pairs(count);
+        }
+        double togetherInExact = 0;
+        for (Species s : exact) {
+            togetherInExact += pairs(s.getGenomes().size());
+        }
+        double togetherInApproximate = 0;
+        for (Species s : approximate) {
+            togetherInApproximate += pairs(s.getGenomes().size());
+        }
+        double allPairs = pairs(genomes.size());
+
+        randIndex = allPairs == 0 ? 1.0
+                : (allPairs + 2 * togetherInBoth - togetherInExact - togetherInApproximate) / allPairs;
+        pairRecall = togetherInExact == 0 ? 1.0 : togetherInBoth / togetherInExact;
+    }
+
+    private Map<Genome, Integer> labels(List<Species> species) {
+        Map<Genome, Integer> labels = new IdentityHashMap<>();
+        for (int i = 0; i < species.size(); i++) {
+            for (Genome genome : species.get(i).getGenomes()) {
+                labels.put(genome, i);
+            }
+        }
+        return labels;
+    }
+
+    private double pairs(long count) {
+        return count * (count - 1) / 2.0;
+    }
+
+    public int getNumGenomes() {
+        return numGenomes;
+    }
+
+    public int getExactSpecies() {
+        return exactSpecies;
+    }
+
+    public int getApproximateSpecies() {
+        return approximateSpecies;
+    }
+
+    public long getExactNanos() {
+        return exactNanos;
+    }
+
+    public long getApproximateNanos() {
+        return approximateNanos;
+    }
+
+    public double getAverageCandidatesTested() {
+        return averageCandidatesTested;
+    }
+
+    public double getRandIndex() {
+        return randIndex;
+    }
+
+    public double getPairRecall() {
+        return pairRecall;
+    }
+
+    @Override
+    public String toString() {
+        return "SpeciationBenchmark{" +
+                "genomes=" + numGenomes +
+                ", exactSpecies=" + exactSpecies +
+                ", approximateSpecies=" + approximateSpecies +
+                ", exactMs=" + exactNanos / 1_000_000 +
+                ", approximateMs=" + approximateNanos / 1_000_000 +
+                ", averageCandidatesTested=" + averageCandidatesTested +
+                ", randIndex=" + randIndex +
+                ", pairRecall=" + pairRecall +
+                '}';
+    }
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.joshuadamian.neat.core.genome.Genome;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.SplittableRandom;
 
 public class Species {
 
@@ -77,8 +78,8 @@ public class Species {
         return representative;
     }
 
-    public void setRandomRepresentative() {
-        representative = genomes.get((int) (Math.random() * genomes.size()));
+    public void setRandomRepresentative(SplittableRandom random) {
+        representative = genomes.get(random.nextInt(genomes.size()));
     }
 
     public double getBestFitness() {
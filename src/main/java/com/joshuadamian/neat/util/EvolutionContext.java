@@ -0,0 +1,105 @@
+package com.joshuadamian.neat.util;
+
+import com.joshuadamian.neat.util.trackers.GenomeTracker;
+import com.joshuadamian.neat.util.trackers.NodeTracker;
+import com.joshuadamian.neat.util.trackers.innovationtracker.InnovationTracker;
+import com.joshuadamian.neat.util.trackers.lineage.LineageLog;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Everything a population shares between its genomes: trackers, gene pool, evaluation plans and lineage
+// log. A Population opens its own context and closes it with close(); genomes hold the context directly,
+// so the registry of open contexts is only consulted by code that starts from a bare population id, such
+// as genomes built or loaded outside a population. Closing removes the context from the registry and drops
+// its cached genes and plans; genomes that outlive it can still be evaluated.
+public class EvolutionContext implements AutoCloseable {
+
+    private static Map<Integer, EvolutionContext> contexts = new ConcurrentHashMap<>();
+    private static AtomicInteger nextPopulationId = new AtomicInteger(0);
+
+    private int populationId;
+    private InnovationTracker innovationTracker = new InnovationTracker();
+    private GenomeTracker genomeTracker = new GenomeTracker();
+    private NodeTracker nodeTracker = new NodeTracker();
+    private GenePool genePool = new GenePool();
+    private TopologyInterner topologyInterner = new TopologyInterner();
+    private LineageLog lineageLog = new LineageLog();
+    private AtomicLong randomStreams = new AtomicLong(0);
+    private volatile boolean closed = false;
+
+    private EvolutionContext(int populationId) {
+        this.populationId = populationId;
+    }
+
+    public static EvolutionContext open() {
+        EvolutionContext context = new EvolutionContext(nextPopulationId.getAndIncrement());
+        contexts.put(context.populationId, context);
+        return context;
+    }
+
+    // Returns the open context of the population with this id. For an id without one, e.g. of a population
+    // that has been closed, it returns a new context that is not registered, so nothing has to close it.
+    public static EvolutionContext of(int populationId) {
+        EvolutionContext context = contexts.get(populationId);
+        return context != null ? context : new EvolutionContext(populationId);
+    }
+
+    public static int getNumOpenContexts() {
+        return contexts.size();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        contexts.remove(populationId, this);
+        genePool.clear();
+        topologyInterner.clear();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getPopulationId() {
+        return populationId;
+    }
+
+    public InnovationTracker getInnovationTracker() {
+        return innovationTracker;
+    }
+
+    public GenomeTracker getGenomeTracker() {
+        return genomeTracker;
+    }
+
+    public NodeTracker getNodeTracker() {
+        return nodeTracker;
+    }
+
+    public GenePool getGenePool() {
+        return genePool;
+    }
+
+    public TopologyInterner getTopologyInterner() {
+        return topologyInterner;
+    }
+
+    public LineageLog getLineageLog() {
+        return lineageLog;
+    }
+
+    // A new stream for code that has no stream of its own to split, such as the convenience overloads that build
+    // or load a single genome. Every call gets the next stream of this context; the high half is the complement
+    // of the population id, so these never coincide with the streams genomes derive from their ids.
+    public SplittableRandom nextRandom(long seed) {
+        long stream = randomStreams.getAndIncrement();
+        return new SplittableRandom(seed ^ (((long) ~populationId << 32) | (stream & 0xFFFFFFFFL)));
+    }
+}
\ No newline at end of file
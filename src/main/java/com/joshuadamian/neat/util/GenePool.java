@@ -0,0 +1,161 @@
+package com.joshuadamian.neat.util;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
+import com.joshuadamian.neat.core.genome.genes.nodegene.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+public class GenePool {
+
+    private ArrayDeque<InputNode> inputNodes = new ArrayDeque<>();
+    private ArrayDeque<HiddenNode> hiddenNodes = new ArrayDeque<>();
+    private ArrayDeque<OutputNode> outputNodes = new ArrayDeque<>();
+    private ArrayDeque<BiasNode> biasNodes = new ArrayDeque<>();
+    private ArrayDeque<ConnectionGene> connectionGenes = new ArrayDeque<>();
+    private ArrayDeque<ArrayList<NodeGene>> nodeLists = new ArrayDeque<>();
+    private ArrayDeque<ArrayList<ConnectionGene>> connectionLists = new ArrayDeque<>();
+    private long allocated = 0;
+    private long reused = 0;
+
+    public NodeGene acquireNode(NodeType nodeType, int id, Config config) {
+        switch (nodeType) {
+            case INPUT:
+                return acquireInputNode(id, config);
+            case HIDDEN:
+                return acquireHiddenNode(id, config);
+            case OUTPUT:
+                return acquireOutputNode(id, config);
+            case BIAS:
+                throw new IllegalArgumentException("Bias nodes draw their bias from the caller's random stream");
+            default:
+                throw new IllegalArgumentException("Unknown node type: " + nodeType);
+        }
+    }
+
+    public NodeGene acquireNode(NodeType nodeType, int id, Config config, SplittableRandom random) {
+        if (nodeType == NodeType.BIAS) {
+            return acquireBiasNode(id, config, config.getBiasInitialization().initializeBias(random));
+        }
+        return acquireNode(nodeType, id, config);
+    }
+
+    public InputNode acquireInputNode(int id, Config config) {
+        InputNode node = inputNodes.poll();
+        if (node == null) {
+            allocated++;
+            return new InputNode(id, config);
+        }
+        reused++;
+        node.recycle(id, config);
+        return node;
+    }
+
+    public HiddenNode acquireHiddenNode(int id, Config config) {
+        HiddenNode node = hiddenNodes.poll();
+        if (node == null) {
+            allocated++;
+            return new HiddenNode(id, config);
+        }
+        reused++;
+        node.recycle(id, config);
+        return node;
+    }
+
+    public OutputNode acquireOutputNode(int id, Config config) {
+        OutputNode node = outputNodes.poll();
+        if (node == null) {
+            allocated++;
+            return new OutputNode(id, config);
+        }
+        reused++;
+        node.recycle(id, config);
+        return node;
+    }
+
+    public BiasNode acquireBiasNode(int id, Config config, double bias) {
+        BiasNode node = biasNodes.poll();
+        if (node == null) {
+            allocated++;
+            return new BiasNode(id, config, bias);
+        }
+        reused++;
+        node.recycle(id, config, bias);
+        return node;
+    }
+
+    public ConnectionGene acquireConnection(NodeGene inNode, NodeGene outNode, double weight, boolean enabled,
+                                            int innovationNumber, boolean recurrent, Config config) {
+        ConnectionGene connection = connectionGenes.poll();
+        if (connection == null) {
+            allocated++;
+            return new ConnectionGene(inNode, outNode, weight, enabled, innovationNumber, recurrent, config);
+        }
+        reused++;
+        connection.recycle(inNode, outNode, weight, enabled, innovationNumber, recurrent, config);
+        return connection;
+    }
+
+    public ArrayList<NodeGene> acquireNodeList(int capacity) {
+        ArrayList<NodeGene> list = nodeLists.poll();
+        if (list == null) {
+            return new ArrayList<>(capacity);
+        }
+        list.ensureCapacity(capacity);
+        return list;
+    }
+
+    public ArrayList<ConnectionGene> acquireConnectionList(int capacity) {
+        ArrayList<ConnectionGene> list = connectionLists.poll();
+        if (list == null) {
+            return new ArrayList<>(capacity);
+        }
+        list.ensureCapacity(capacity);
+        return list;
+    }
+
+    public void release(ArrayList<NodeGene> nodes, ArrayList<ConnectionGene> connections) {
+        for (NodeGene node : nodes) {
+            if (node instanceof InputNode) {
+                inputNodes.push((InputNode) node);
+            } else if (node instanceof HiddenNode) {
+                hiddenNodes.push((HiddenNode) node);
+            } else if (node instanceof OutputNode) {
+                outputNodes.push((OutputNode) node);
+            } else if (node instanceof BiasNode) {
+                biasNodes.push((BiasNode) node);
+            }
+        }
+        for (ConnectionGene connection : connections) {
+            connectionGenes.push(connection);
+        }
+        nodes.clear();
+        connections.clear();
+        nodeLists.push(nodes);
+        connectionLists.push(connections);
+    }
+
+    public void clear() {
+        inputNodes.clear();
+        hiddenNodes.clear();
+        outputNodes.clear();
+        biasNodes.clear();
+        connectionGenes.clear();
+        nodeLists.clear();
+        connectionLists.clear();
+    }
+
+    public int getPooledGenes() {
+        return inputNodes.size() + hiddenNodes.size() + outputNodes.size() + biasNodes.size() + connectionGenes.size();
+    }
+
+    public long getAllocated() {
+        return allocated;
+    }
+
+    public long getReused() {
+        return reused;
+    }
+}
\ No newline at end of file
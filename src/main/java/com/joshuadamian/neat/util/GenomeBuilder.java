@@ -17,96 +17,204 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 
 public class GenomeBuilder {
 
     public static Genome buildGenome(Config config, int populationId) {
+        EvolutionContext context = EvolutionContext.of(populationId);
+        return buildGenome(config, context, context.nextRandom(config.getSeed()));
+    }
+
+    public static Genome buildGenome(Config config, int populationId, SplittableRandom random) {
+        return buildGenome(config, EvolutionContext.of(populationId), random);
+    }
+
+    public static Genome buildGenome(Config config, EvolutionContext context, SplittableRandom random) {
         int numInputs = config.getInputSize();
         int numOutputs = config.getOutputSize();
 
-        NodeTracker nodeTracker = StaticManager.getNodeTracker(populationId);
-        InnovationTracker innovationTracker = StaticManager.getInnovationTracker(populationId);
-
-        NodeGene[] nodeGenes = new NodeGene[numInputs + numOutputs + 1];
-        ConnectionGene[] connectionGenes = new ConnectionGene[(numInputs + 1) * numOutputs];
+        NodeTracker nodeTracker = context.getNodeTracker();
+        ArrayList<NodeGene> nodeGenes = new ArrayList<>(numInputs + numOutputs + 1);
 
         for (int i = 0; i < numInputs; i++) {
-            nodeGenes[i] = new InputNode(StaticManager.getNodeTracker(populationId).getNextNodeId(), config);
+            nodeGenes.add(new InputNode(nodeTracker.getNextNodeId(), config));
         }
 
         for (int i = 0; i < numOutputs; i++) {
-            nodeGenes[numInputs + i] = new OutputNode(StaticManager.getNodeTracker(populationId).getNextNodeId(), config);
+            nodeGenes.add(new OutputNode(nodeTracker.getNextNodeId(), config));
         }
 
-        int biasIndex = numInputs + numOutputs;
-        nodeGenes[biasIndex] = new BiasNode(StaticManager.getNodeTracker(populationId).getNextNodeId(), config);
-        BiasNode biasNode = (BiasNode) nodeGenes[biasIndex];
-
-        int connectionIndex = 0;
-        for (int inputIdx = 0; inputIdx < numInputs; inputIdx++) {
-            NodeGene inputNode = nodeGenes[inputIdx];
-
-            for (int outputIdx = numInputs; outputIdx < numInputs + numOutputs; outputIdx++) {
-                NodeGene outputNode = nodeGenes[outputIdx];
-                InnovationData innovationData = innovationTracker.trackInnovation(
-                        inputNode.getId(),
-                        outputNode.getId()
-                );
+        nodeGenes.add(new BiasNode(nodeTracker.getNextNodeId(), config, random));
 
-                connectionGenes[connectionIndex] = new ConnectionGene(
-                        inputNode,
-                        outputNode,
-                        config.getWeightInitialization().initializeWeight(),
-                        true,
-                        innovationData.getInnovationNumber(),
-                        false,
-                        config
-                );
-                connectionIndex++;
+        if (config.getInitialConnectivity() != InitialConnectivity.FULL) {
+            // Rows are the inputs followed by the bias node, the order in which a full start numbers them.
+            int[] inNodeIds = new int[numInputs + 1];
+            int[] outNodeIds = new int[numOutputs];
+            for (int i = 0; i < numInputs; i++) {
+                inNodeIds[i] = nodeGenes.get(i).getId();
             }
+            inNodeIds[numInputs] = nodeGenes.get(numInputs + numOutputs).getId();
+            for (int i = 0; i < numOutputs; i++) {
+                outNodeIds[i] = nodeGenes.get(numInputs + i).getId();
+            }
+            context.getInnovationTracker().reserveLayer(inNodeIds, outNodeIds);
         }
 
-        if (config.getConnectBias()) {
-            for (int outputIdx = numInputs; outputIdx < numInputs + numOutputs; outputIdx++) {
-                NodeGene outputNode = nodeGenes[outputIdx];
-                InnovationData innovationData = innovationTracker.trackInnovation(
-                        biasNode.getId(),
-                        outputNode.getId()
-                );
+        return connect(nodeGenes, config, context, random);
+    }
 
-                connectionGenes[connectionIndex] = new ConnectionGene(
-                        biasNode,
-                        outputNode,
-                        config.getWeightInitialization().initializeWeight(),
-                        true,
-                        innovationData.getInnovationNumber(),
-                        false,
-                        config
-                );
-                connectionIndex++;
+    // Builds a genome with the nodes and bias of an initial genome and newly drawn initial connections, so
+    // genomes whose connectivity is drawn per genome still share their node ids.
+    public static Genome buildGenome(Genome initialGenome, SplittableRandom random) {
+        Config config = initialGenome.getConfig();
+        ArrayList<NodeGene> nodeGenes = new ArrayList<>(initialGenome.getNodeGenes().size());
+        for (NodeGene node : initialGenome.getNodeGenes()) {
+            if (node instanceof InputNode) {
+                nodeGenes.add(new InputNode(node.getId(), config));
+            } else if (node instanceof OutputNode) {
+                nodeGenes.add(new OutputNode(node.getId(), config));
+            } else if (node instanceof BiasNode) {
+                nodeGenes.add(new BiasNode(node.getId(), config, ((BiasNode) node).getBias()));
+            } else {
+                throw new IllegalArgumentException("Initial genome must not have hidden nodes");
             }
         }
+        return connect(nodeGenes, config, initialGenome.getContext(), random);
+    }
 
-        ArrayList<NodeGene> nodeGenesList = new ArrayList<>();
-        for (NodeGene nodeGene : nodeGenes) {
-            nodeGenesList.add(nodeGene);
+    private static Genome connect(ArrayList<NodeGene> nodeGenes, Config config, EvolutionContext context,
+                                  SplittableRandom random) {
+        ArrayList<NodeGene> inputNodes = new ArrayList<>();
+        ArrayList<NodeGene> outputNodes = new ArrayList<>();
+        BiasNode biasNode = null;
+        for (NodeGene node : nodeGenes) {
+            if (node instanceof InputNode) {
+                inputNodes.add(node);
+            } else if (node instanceof OutputNode) {
+                outputNodes.add(node);
+            } else if (node instanceof BiasNode) {
+                biasNode = (BiasNode) node;
+            }
+        }
+        int numInputs = inputNodes.size();
+        int numOutputs = outputNodes.size();
+
+        InnovationTracker innovationTracker = context.getInnovationTracker();
+        ArrayList<ConnectionGene> connectionGenes = new ArrayList<>();
+
+        switch (config.getInitialConnectivity()) {
+            case FULL:
+                for (NodeGene inputNode : inputNodes) {
+                    for (NodeGene outputNode : outputNodes) {
+                        connectionGenes.add(createConnection(inputNode, outputNode, config, innovationTracker, random));
+                    }
+                }
+                break;
+            case NONE:
+                break;
+            case PARTIAL:
+                int numPairs = numInputs * numOutputs;
+                int numConnections = (int) Math.round(numPairs * config.getInitialConnectionFraction());
+                for (int pair : samplePairs(numPairs, Math.max(0, Math.min(numConnections, numPairs)), random)) {
+                    connectionGenes.add(createConnection(
+                            inputNodes.get(pair / numOutputs),
+                            outputNodes.get(pair % numOutputs),
+                            config,
+                            innovationTracker,
+                            random
+                    ));
+                }
+                break;
+            case ONE_INPUT_PER_OUTPUT:
+                for (int i = 0; i < numOutputs && numInputs > 0; i++) {
+                    NodeGene inputNode = inputNodes.get(random.nextInt(numInputs));
+                    connectionGenes.add(createConnection(inputNode, outputNodes.get(i), config, innovationTracker, random));
+                }
+                break;
+            case LISTED:
+                boolean[] listed = new boolean[numInputs];
+                for (int index : config.getInitialInputs()) {
+                    if (index < 0 || index >= numInputs) {
+                        throw new IllegalArgumentException("Initial input " + index + " is not an input index");
+                    }
+                    if (listed[index]) {
+                        continue;
+                    }
+                    listed[index] = true;
+                    for (NodeGene outputNode : outputNodes) {
+                        connectionGenes.add(createConnection(
+                                inputNodes.get(index),
+                                outputNode,
+                                config,
+                                innovationTracker,
+                                random
+                        ));
+                    }
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown initial connectivity: " + config.getInitialConnectivity());
         }
 
-        ArrayList<ConnectionGene> connectionGenesList = new ArrayList<>();
-        for (ConnectionGene connectionGene : connectionGenes) {
-            connectionGenesList.add(connectionGene);
+        if (config.getConnectBias() && biasNode != null) {
+            for (NodeGene outputNode : outputNodes) {
+                connectionGenes.add(createConnection(biasNode, outputNode, config, innovationTracker, random));
+            }
         }
 
-        return new Genome(nodeGenesList, connectionGenesList, config, populationId);
+        return new Genome(nodeGenes, connectionGenes, config, context, random);
+    }
+
+    private static ConnectionGene createConnection(NodeGene inNode, NodeGene outNode, Config config,
+                                                   InnovationTracker innovationTracker, SplittableRandom random) {
+        InnovationData innovationData = innovationTracker.trackInnovation(inNode.getId(), outNode.getId());
+        return new ConnectionGene(
+                inNode,
+                outNode,
+                config.getWeightInitialization().initializeWeight(random),
+                true,
+                innovationData.getInnovationNumber(),
+                false,
+                config
+        );
+    }
+
+    // Draws count distinct pairs out of numPairs (Floyd's algorithm), in ascending order.
+    private static int[] samplePairs(int numPairs, int count, SplittableRandom random) {
+        HashSet<Integer> chosen = new HashSet<>(count * 2);
+        for (int j = numPairs - count; j < numPairs; j++) {
+            int candidate = random.nextInt(j + 1);
+            chosen.add(chosen.contains(candidate) ? j : candidate);
+        }
+        int[] pairs = new int[chosen.size()];
+        int i = 0;
+        for (int pair : chosen) {
+            pairs[i++] = pair;
+        }
+        Arrays.sort(pairs);
+        return pairs;
     }
 
     public static Genome loadGenome(String filePath, Config config) {
+        return loadGenome(filePath, config, null);
+    }
+
+    // Saved genomes carry no bias value, so the bias of a loaded genome is drawn from the given stream, or from
+    // the next stream of the genome's population when none is given.
+    public static Genome loadGenome(String filePath, Config config, SplittableRandom random) {
         try {
             String content = new String(Files.readAllBytes(Paths.get(filePath)), StandardCharsets.UTF_8);
             JSONObject jsonObject = new JSONObject(content);
+            EvolutionContext context = EvolutionContext.of(jsonObject.getInt("populationId"));
+            if (random == null) {
+                random = context.nextRandom(config.getSeed());
+            }
 
             ArrayList<NodeGene> nodeGenes = new ArrayList<>();
             JSONArray nodeGenesArray = jsonObject.getJSONArray("nodeGenes");
@@ -128,7 +236,7 @@ public class GenomeBuilder {
                         node = new OutputNode(id, config);
                         break;
                     case "BIAS":
-                        node = new BiasNode(id, config);
+                        node = new BiasNode(id, config, random);
                         break;
                     default:
                         throw new IllegalArgumentException("Unknown node type: " + type);
@@ -165,8 +273,7 @@ public class GenomeBuilder {
                 connectionGenes.add(connection);
             }
 
-            int populationId = jsonObject.getInt("populationId");
-            Genome genome = new Genome(nodeGenes, connectionGenes, config, populationId);
+            Genome genome = new Genome(nodeGenes, connectionGenes, config, context, null);
 
             if (jsonObject.has("fitness")) {
                 genome.setFitness(jsonObject.getDouble("fitness"));
@@ -0,0 +1,192 @@
+package com.joshuadamian.neat.util;
+
+import com.joshuadamian.neat.config.Config;
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
+import com.joshuadamian.neat.core.genome.genes.nodegene.*;
+
+import java.util.*;
+import java.util.function.IntUnaryOperator;
+
+// Moves genomes between populations. Input, output and bias nodes have the same ids in every population;
+// hidden nodes get ids from the target's node tracker, and the mapping is kept in both directions so a
+// node travelling back keeps its original id. Connections take the innovation number the target already
+// uses for the same pair of nodes, or a new one from its innovation tracker.
+// Islands in different processes each have their own translator, so there a hidden node is named by its origin:
+// the island that created it and its id there. A node arriving back on its own island gets its own id again,
+// and a node reaching an island by two routes gets one id there.
+public class GenomeTranslator {
+
+    private Map<Long, Map<Integer, Integer>> nodeMaps = new HashMap<>();
+    private Map<Integer, Map<Long, Integer>> innovationMaps = new HashMap<>();
+    private Map<Integer, Map<NodeOrigin, Integer>> originNodeMaps = new HashMap<>();
+    private Map<Integer, Map<Integer, NodeOrigin>> nodeOriginMaps = new HashMap<>();
+
+    public void indexPopulation(int populationId, List<Genome> genomes) {
+        Map<Long, Integer> innovations = innovationMap(populationId);
+        for (Genome genome : genomes) {
+            for (ConnectionGene connection : genome.getConnectionGenes()) {
+                innovations.putIfAbsent(
+                        pairKey(connection.getInNode().getId(), connection.getOutNode().getId()),
+                        connection.getInnovationNumber()
+                );
+            }
+        }
+    }
+
+    public Genome translate(Genome genome, int sourcePopulationId, int targetPopulationId) {
+        return translate(genome, sourcePopulationId, EvolutionContext.of(targetPopulationId));
+    }
+
+    public Genome translate(Genome genome, int sourcePopulationId, EvolutionContext targetContext) {
+        int targetPopulationId = targetContext.getPopulationId();
+        Map<Integer, Integer> nodeMap = nodeMap(sourcePopulationId, targetPopulationId);
+        Map<Integer, Integer> reverseNodeMap = nodeMap(targetPopulationId, sourcePopulationId);
+        return translate(genome, targetContext, nodeId -> {
+            Integer newId = nodeMap.get(nodeId);
+            if (newId == null) {
+                newId = targetContext.getNodeTracker().getNextNodeId();
+                nodeMap.put(nodeId, newId);
+                reverseNodeMap.put(newId, nodeId);
+            }
+            return newId;
+        });
+    }
+
+    // The origin a hidden node of the given population is sent with; island is that population's own island.
+    public NodeOrigin getOrigin(int populationId, String island, int nodeId) {
+        NodeOrigin origin = nodeOriginMap(populationId).get(nodeId);
+        return origin != null ? origin : new NodeOrigin(island, nodeId);
+    }
+
+    // Translates a genome whose hidden nodes arrived with their origins into the population of the given island.
+    public Genome translate(Genome genome, Map<Integer, NodeOrigin> origins, String island,
+                            EvolutionContext targetContext) {
+        int targetPopulationId = targetContext.getPopulationId();
+        Map<NodeOrigin, Integer> originNodes = originNodeMap(targetPopulationId);
+        Map<Integer, NodeOrigin> nodeOrigins = nodeOriginMap(targetPopulationId);
+        return translate(genome, targetContext, nodeId -> {
+            NodeOrigin origin = origins.get(nodeId);
+            if (origin == null) {
+                throw new IllegalArgumentException("Error: Hidden node " + nodeId + " has no origin.");
+            }
+            if (origin.getIsland().equals(island)) {
+                return origin.getNodeId();
+            }
+            Integer newId = originNodes.get(origin);
+            if (newId == null) {
+                newId = targetContext.getNodeTracker().getNextNodeId();
+                originNodes.put(origin, newId);
+                nodeOrigins.put(newId, origin);
+            }
+            return newId;
+        });
+    }
+
+    private Genome translate(Genome genome, EvolutionContext targetContext, IntUnaryOperator hiddenNodeIds) {
+        Config config = genome.getConfig();
+        Map<Long, Integer> innovations = innovationMap(targetContext.getPopulationId());
+
+        Map<Integer, NodeGene> newNodeMap = new HashMap<>();
+        ArrayList<NodeGene> newNodeGenes = new ArrayList<>(genome.getNodeGenes().size());
+        for (NodeGene node : genome.getNodeGenes()) {
+            NodeGene newNode;
+            if (node instanceof InputNode) {
+                newNode = new InputNode(node.getId(), config);
+            } else if (node instanceof OutputNode) {
+                newNode = new OutputNode(node.getId(), config);
+            } else if (node instanceof BiasNode) {
+                newNode = new BiasNode(node.getId(), config, ((BiasNode) node).getBias());
+            } else {
+                newNode = new HiddenNode(hiddenNodeIds.applyAsInt(node.getId()), config);
+            }
+            newNodeMap.put(node.getId(), newNode);
+            newNodeGenes.add(newNode);
+        }
+
+        List<ConnectionGene> connections = genome.getConnectionGenes();
+        ArrayList<ConnectionGene> newConnectionGenes = new ArrayList<>(connections.size());
+        for (int i = 0; i < connections.size(); i++) {
+            ConnectionGene connection = connections.get(i);
+            NodeGene newInNode = newNodeMap.get(connection.getInNode().getId());
+            NodeGene newOutNode = newNodeMap.get(connection.getOutNode().getId());
+            if (newInNode == null || newOutNode == null) {
+                throw new IllegalStateException("Error: Node referenced in a connection does not exist.");
+            }
+            long pair = pairKey(newInNode.getId(), newOutNode.getId());
+            Integer innovationNumber = innovations.get(pair);
+            if (innovationNumber == null) {
+                innovationNumber = targetContext.getInnovationTracker()
+                        .trackInnovation(newInNode.getId(), newOutNode.getId())
+                        .getInnovationNumber();
+                innovations.put(pair, innovationNumber);
+            }
+            newConnectionGenes.add(new ConnectionGene(
+                    newInNode,
+                    newOutNode,
+                    genome.getConnectionWeight(i),
+                    connection.isEnabled(),
+                    innovationNumber,
+                    connection.isRecurrent(),
+                    config
+            ));
+        }
+
+        Genome translated = new Genome(newNodeGenes, newConnectionGenes, config, targetContext, null);
+        translated.setFitness(genome.getFitness());
+        return translated;
+    }
+
+    private Map<Integer, Integer> nodeMap(int sourcePopulationId, int targetPopulationId) {
+        return nodeMaps.computeIfAbsent(pairKey(sourcePopulationId, targetPopulationId), key -> new HashMap<>());
+    }
+
+    private Map<Long, Integer> innovationMap(int populationId) {
+        return innovationMaps.computeIfAbsent(populationId, key -> new HashMap<>());
+    }
+
+    private Map<NodeOrigin, Integer> originNodeMap(int populationId) {
+        return originNodeMaps.computeIfAbsent(populationId, key -> new HashMap<>());
+    }
+
+    private Map<Integer, NodeOrigin> nodeOriginMap(int populationId) {
+        return nodeOriginMaps.computeIfAbsent(populationId, key -> new HashMap<>());
+    }
+
+    private long pairKey(int first, int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+
+    public static class NodeOrigin {
+
+        private String island;
+        private int nodeId;
+
+        public NodeOrigin(String island, int nodeId) {
+            this.island = island;
+            this.nodeId = nodeId;
+        }
+
+        public String getIsland() {
+            return island;
+        }
+
+        public int getNodeId() {
+            return nodeId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof NodeOrigin)) {
+                return false;
+            }
+            NodeOrigin origin = (NodeOrigin) other;
+            return nodeId == origin.nodeId && island.equals(origin.island);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * island.hashCode() + nodeId;
+        }
+    }
+}
\ No newline at end of file
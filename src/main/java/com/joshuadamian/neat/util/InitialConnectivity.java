@@ -0,0 +1,14 @@
+package com.joshuadamian.neat.util;
+
+// Which input to output connections genomes start with. Bias connections only depend on Config.connectBias.
+public enum InitialConnectivity {
+    FULL, // Every input to every output
+    NONE, // No input connections, structure is added by mutation only
+    PARTIAL, // A random Config.initialConnectionFraction of all input to output connections, drawn per genome
+    ONE_INPUT_PER_OUTPUT, // Every output to one random input, drawn per genome
+    LISTED; // Every input in Config.initialInputs to every output
+
+    public boolean isDrawnPerGenome() {
+        return this == PARTIAL || this == ONE_INPUT_PER_OUTPUT;
+    }
+}
\ No newline at end of file
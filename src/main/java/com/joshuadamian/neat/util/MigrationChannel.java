@@ -0,0 +1,315 @@
+package com.joshuadamian.neat.util;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Exchanges migrant batches with islands in other processes over TCP. Sending and receiving happen on
+// background threads: send() only hands the batch over, and receive() returns whatever has arrived since
+// the last call, keeping only the newest batch of each sender. Islands that are not reachable are retried
+// on the next send, and islands that send to this one are added to its peers, so processes can join and leave
+// while the others keep evolving. A batch is only taken from a sender whose reported host is the one its
+// connection comes from, so no client can replace the batch of another island.
+public class MigrationChannel {
+
+    private static final int MAGIC = 0x4D494752;
+    private static final int MAX_BATCH_BYTES = 64 << 20;
+
+    private String address;
+    private int connectTimeout;
+    private ServerSocket serverSocket;
+    private ExecutorService sender;
+    private Map<String, Peer> peers = new ConcurrentHashMap<>();
+    private Map<String, Batch> received = new ConcurrentHashMap<>();
+    private Set<Socket> incomingSockets = ConcurrentHashMap.newKeySet();
+    private AtomicReference<byte[]> pending = new AtomicReference<>();
+    private AtomicLong sentBatches = new AtomicLong();
+    private AtomicLong failedSends = new AtomicLong();
+    private AtomicLong receivedBatches = new AtomicLong();
+    private AtomicLong rejectedBatches = new AtomicLong();
+    private volatile boolean closed = false;
+
+    public MigrationChannel(String host, int port, List<String> peerAddresses, int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        try {
+            serverSocket = new ServerSocket(port);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not listen for migrants on port " + port, e);
+        }
+        this.address = host + ":" + serverSocket.getLocalPort();
+        for (String peerAddress : peerAddresses) {
+            parseAddress(peerAddress);
+            if (!peerAddress.equals(address)) {
+                peers.put(peerAddress, new Peer(peerAddress, true));
+            }
+        }
+
+        sender = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "migration-sender"));
+        daemon(this::accept, "migration-acceptor").start();
+    }
+
+    public void send(int generation, byte[] payload) {
+        if (closed) {
+            throw new IllegalStateException("Migration channel is closed");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + address.length() + 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeUTF(address);
+            out.writeInt(generation);
+            out.writeInt(payload.length);
+            out.write(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not frame migrant batch", e);
+        }
+        // A batch that has not gone out yet is replaced by the newer one instead of queueing behind it.
+        pending.set(bytes.toByteArray());
+        sender.execute(this::flush);
+    }
+
+    public List<Batch> receive() {
+        ArrayList<Batch> batches = new ArrayList<>();
+        for (String peerAddress : received.keySet()) {
+            Batch batch = received.remove(peerAddress);
+            if (batch != null) {
+                batches.add(batch);
+            }
+        }
+        batches.sort(Comparator.comparing(Batch::getSender));
+        return batches;
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        for (Socket socket : incomingSockets) {
+            closeQuietly(socket);
+        }
+        sender.execute(() -> {
+            for (Peer peer : peers.values()) {
+                peer.disconnect();
+            }
+        });
+        sender.shutdown();
+        try {
+            sender.awaitTermination(connectTimeout * 2L, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() {
+        byte[] frame = pending.getAndSet(null);
+        if (frame == null) {
+            return;
+        }
+        for (Peer peer : peers.values()) {
+            try {
+                peer.write(frame);
+                sentBatches.incrementAndGet();
+            } catch (IOException e) {
+                failedSends.incrementAndGet();
+                peer.disconnect();
+                if (!peer.configured) {
+                    peers.remove(peer.address, peer);
+                }
+            }
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                incomingSockets.add(socket);
+                daemon(() -> read(socket), "migration-reader").start();
+            } catch (IOException e) {
+                // Closing the server socket ends the loop; any other failure only loses that connection.
+            }
+        }
+    }
+
+    private void read(Socket socket) {
+        // The address this connection was verified for; the lookup is only repeated when the sender reports another.
+        String verifiedAddress = null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (!closed) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not a migrant batch");
+                }
+                String peerAddress = in.readUTF();
+                int generation = in.readInt();
+                int length = in.readInt();
+                if (length < 0 || length > MAX_BATCH_BYTES) {
+                    throw new IOException("Invalid migrant batch length: " + length);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (!peerAddress.equals(verifiedAddress)) {
+                    if (peerAddress.equals(address) || !isReportedBy(peerAddress, socket.getInetAddress())) {
+                        rejectedBatches.incrementAndGet();
+                        continue;
+                    }
+                    verifiedAddress = peerAddress;
+                }
+                peers.computeIfAbsent(peerAddress, key -> new Peer(key, false));
+                received.put(peerAddress, new Batch(peerAddress, generation, payload));
+                receivedBatches.incrementAndGet();
+            }
+        } catch (IOException e) {
+            // The sending island left or sent something unreadable; it reconnects with its next batch.
+        } finally {
+            incomingSockets.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    // Whether the host of an address a sender reports about itself resolves to where its connection comes
+    // from, so a sender can neither make this island send migrants to some other host nor pass its batches off
+    // as those of another island.
+    private static boolean isReportedBy(String reportedAddress, InetAddress remoteAddress) {
+        try {
+            for (InetAddress candidate : InetAddress.getAllByName(parseAddress(reportedAddress).getHostString())) {
+                if (candidate.equals(remoteAddress)) {
+                    return true;
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // An address that does not parse or resolve is not learned.
+        }
+        return false;
+    }
+
+    private static InetSocketAddress parseAddress(String address) {
+        int separator = address.lastIndexOf(':');
+        if (separator <= 0 || separator == address.length() - 1) {
+            throw new IllegalArgumentException("Island address must be host:port, got: " + address);
+        }
+        try {
+            return InetSocketAddress.createUnresolved(
+                    address.substring(0, separator),
+                    Integer.parseInt(address.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Island address must be host:port, got: " + address, e);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public Set<String> getPeers() {
+        return new TreeSet<>(peers.keySet());
+    }
+
+    public long getSentBatches() {
+        return sentBatches.get();
+    }
+
+    public long getFailedSends() {
+        return failedSends.get();
+    }
+
+    public long getReceivedBatches() {
+        return receivedBatches.get();
+    }
+
+    public long getRejectedBatches() {
+        return rejectedBatches.get();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public static class Batch {
+
+        private String sender;
+        private int generation;
+        private byte[] payload;
+
+        private Batch(String sender, int generation, byte[] payload) {
+            this.sender = sender;
+            this.generation = generation;
+            this.payload = payload;
+        }
+
+        public String getSender() {
+            return sender;
+        }
+
+        public int getGeneration() {
+            return generation;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    // Only touched by the sender thread.
+    private class Peer {
+
+        private String address;
+        private boolean configured;
+        private Socket socket;
+        private DataOutputStream out;
+
+        private Peer(String address, boolean configured) {
+            this.address = address;
+            this.configured = configured;
+        }
+
+        private void write(byte[] frame) throws IOException {
+            if (socket == null) {
+                InetSocketAddress target = parseAddress(address);
+                Socket newSocket = new Socket();
+                try {
+                    newSocket.connect(new InetSocketAddress(target.getHostString(), target.getPort()), connectTimeout);
+                    newSocket.setTcpNoDelay(true);
+                } catch (IOException e) {
+                    closeQuietly(newSocket);
+                    throw e;
+                }
+                socket = newSocket;
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            }
+            out.write(frame);
+            out.flush();
+        }
+
+        private void disconnect() {
+            if (socket != null) {
+                closeQuietly(socket);
+                socket = null;
+                out = null;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.joshuadamian.neat.util;
+
+import com.joshuadamian.neat.activationfunction.ActivationFunction;
+import com.joshuadamian.neat.core.genome.EvaluationPlan;
+import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
+import com.joshuadamian.neat.core.genome.genes.nodegene.*;
+
+import java.util.*;
+
+public class TopologyInterner {
+
+    private Map<TopologyKey, EvaluationPlan> plans = new HashMap<>();
+    private Map<TopologyKey, Integer> lastUsed = new HashMap<>();
+    private int generation = 0;
+    private Map<ActivationFunction, Integer> activationFunctionIds = new IdentityHashMap<>();
+    private long hits = 0;
+    private long misses = 0;
+
+    public synchronized EvaluationPlan intern(List<NodeGene> nodes, List<ConnectionGene> connections, int inputCount) {
+        Map<NodeGene, Integer> nodeIndex = new IdentityHashMap<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            nodeIndex.put(nodes.get(i), i);
+        }
+        Map<ConnectionGene, Integer> connectionIndex = new IdentityHashMap<>(connections.size());
+        for (int i = 0; i < connections.size(); i++) {
+            connectionIndex.put(connections.get(i), i);
+        }
+
+        TopologyKey key = new TopologyKey(describe(nodes, connections, inputCount, nodeIndex, connectionIndex));
+        lastUsed.put(key, generation);
+        EvaluationPlan plan = plans.get(key);
+        if (plan != null) {
+            hits++;
+            return plan;
+        }
+
+        misses++;
+        plan = EvaluationPlan.compile(nodes, connections, inputCount, nodeIndex, connectionIndex);
+        plans.put(key, plan);
+        return plan;
+    }
+
+    public synchronized void nextGeneration() {
+        Iterator<Map.Entry<TopologyKey, Integer>> iterator = lastUsed.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<TopologyKey, Integer> entry = iterator.next();
+            if (entry.getValue() < generation) {
+                plans.remove(entry.getKey());
+                iterator.remove();
+            }
+        }
+        generation++;
+    }
+
+    private int[] describe(List<NodeGene> nodes, List<ConnectionGene> connections, int inputCount,
+                           Map<NodeGene, Integer> nodeIndex, Map<ConnectionGene, Integer> connectionIndex) {
+        IntList description = new IntList(3 + nodes.size() * 8 + connections.size() * 5);
+        description.add(inputCount);
+        description.add(nodes.size());
+        description.add(connections.size());
+
+        for (NodeGene node : nodes) {
+            description.add(node.getId());
+            description.add(node.getNodeType().ordinal());
+            if (node instanceof HiddenNode) {
+                description.add(activationFunctionId(((HiddenNode) node).getActivationFunction()));
+            } else if (node instanceof OutputNode) {
+                description.add(activationFunctionId(((OutputNode) node).getActivationFunction()));
+            }
+        }
+
+        for (ConnectionGene connection : connections) {
+            description.add(indexOf(nodeIndex, connection.getInNode()));
+            description.add(indexOf(nodeIndex, connection.getOutNode()));
+            description.add((connection.isEnabled() ? 1 : 0) | (connection.isRecurrent() ? 2 : 0));
+        }
+
+        for (NodeGene node : nodes) {
+            if (node.acceptsOutgoingConnections()) {
+                describeConnections(description, node.getOutgoingConnections(), connectionIndex);
+            }
+            if (node instanceof HiddenNode) {
+                HiddenNode hiddenNode = (HiddenNode) node;
+                describeConnections(description, hiddenNode.getInComingRecurrentConnections(), connectionIndex);
+                description.add(indexOf(connectionIndex, hiddenNode.getBiasConnection()));
+            } else if (node instanceof OutputNode) {
+                OutputNode outputNode = (OutputNode) node;
+                describeConnections(description, outputNode.getInComingRecurrentConnections(), connectionIndex);
+                description.add(indexOf(connectionIndex, outputNode.getBiasConnection()));
+            }
+        }
+        return description.toArray();
+    }
+
+    private void describeConnections(IntList description, List<ConnectionGene> connections,
+                                     Map<ConnectionGene, Integer> connectionIndex) {
+        description.add(connections.size());
+        for (ConnectionGene connection : connections) {
+            description.add(indexOf(connectionIndex, connection));
+        }
+    }
+
+    private <T> int indexOf(Map<T, Integer> index, T element) {
+        if (element == null) {
+            return -1;
+        }
+        Integer position = index.get(element);
+        return position != null ? position : -2;
+    }
+
+    private int activationFunctionId(ActivationFunction activationFunction) {
+        Integer id = activationFunctionIds.get(activationFunction);
+        if (id == null) {
+            id = activationFunctionIds.size();
+            activationFunctionIds.put(activationFunction, id);
+        }
+        return id;
+    }
+
+    public synchronized void clear() {
+        plans.clear();
+        lastUsed.clear();
+    }
+
+    public synchronized int getNumTopologies() {
+        return plans.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static class TopologyKey {
+
+        private int[] description;
+        private int hash;
+
+        private TopologyKey(int[] description) {
+            this.description = description;
+            this.hash = Arrays.hashCode(description);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TopologyKey && Arrays.equals(description, ((TopologyKey) other).description);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class IntList {
+
+        private int[] values;
+        private int size = 0;
+
+        private IntList(int capacity) {
+            this.values = new int[Math.max(capacity, 4)];
+        }
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
\ No newline at end of file
@@ -1,9 +0,0 @@
-package com.joshuadamian.neat.util.trackers;
-
-public class PopulationTracker {
-        private static int populationId = 0;
-
-        public static int getNextPopulationId() {
-            return populationId++;
-        }
-}
\ No newline at end of file
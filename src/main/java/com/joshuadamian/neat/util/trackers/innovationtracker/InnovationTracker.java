@@ -8,15 +8,35 @@ import java.util.Map;
 public class InnovationTracker {
     private Map<String, Object> innovationMap;
     private int innovationCounter = 0;
+    private Map<Integer, Integer> reservedRows;
+    private Map<Integer, Integer> reservedColumns;
+    private int reservedBase;
 
     public InnovationTracker() {
         innovationMap = new HashMap<>();
     }
 
+    // Forgets this generation's innovations. A reserved layer is kept for the whole run.
     public void reset() {
         innovationMap.clear();
     }
 
+    // Sets aside the numbers a fully connected layer from inNodeIds to outNodeIds would get, row by row,
+    // without creating the innovations. A connection in that layer then gets the same number whichever
+    // genome creates it, in whichever generation, just as if every genome had started with it.
+    public void reserveLayer(int[] inNodeIds, int[] outNodeIds) {
+        reservedRows = new HashMap<>(inNodeIds.length * 2);
+        reservedColumns = new HashMap<>(outNodeIds.length * 2);
+        for (int i = 0; i < inNodeIds.length; i++) {
+            reservedRows.put(inNodeIds[i], i);
+        }
+        for (int i = 0; i < outNodeIds.length; i++) {
+            reservedColumns.put(outNodeIds[i], i);
+        }
+        reservedBase = innovationCounter;
+        innovationCounter += inNodeIds.length * outNodeIds.length;
+    }
+
     public InnovationData trackInnovation(int inNodeId, int outNodeId) {
         String mutationKey = generateMutationKey(InnovationType.addConnection, inNodeId, outNodeId);
 
@@ -24,9 +44,15 @@ public class InnovationTracker {
             return (InnovationData) innovationMap.get(mutationKey);
         } else {
             InnovationData innovationData = new InnovationData(InnovationType.addConnection, inNodeId, outNodeId);
-            innovationData.setInnovationNumber(innovationCounter);
+            Integer row = reservedRows != null ? reservedRows.get(inNodeId) : null;
+            Integer column = reservedColumns != null ? reservedColumns.get(outNodeId) : null;
+            if (row != null && column != null) {
+                innovationData.setInnovationNumber(reservedBase + row * reservedColumns.size() + column);
+            } else {
+                innovationData.setInnovationNumber(innovationCounter);
+                innovationCounter++;
+            }
             innovationMap.put(mutationKey, innovationData);
-            innovationCounter++;
             return innovationData;
         }
     }
@@ -0,0 +1,8 @@
+package com.joshuadamian.neat.util.trackers.lineage;
+
+public enum DeltaType {
+    WEIGHT,
+    ADD_CONNECTION,
+    ADD_NODE,
+    ENABLE
+}
@@ -0,0 +1,218 @@
+package com.joshuadamian.neat.util.trackers.lineage;
+
+import com.joshuadamian.neat.core.genome.Genome;
+import com.joshuadamian.neat.core.genome.genes.connectiongene.ConnectionGene;
+
+import java.io.*;
+import java.util.*;
+
+public class LineageLog {
+
+    private static final int MAGIC = 0x4C494E45;
+    private static final int VERSION = 1;
+    private static final DeltaType[] DELTA_TYPES = DeltaType.values();
+
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private DataOutputStream out = new DataOutputStream(buffer);
+    private Map<Integer, Integer> offsets = new HashMap<>();
+    private byte[] snapshot = new byte[0];
+
+    public void recordRoot(Genome genome, int generation) {
+        ArrayList<MutationDelta> deltas = new ArrayList<>();
+        List<ConnectionGene> connections = genome.getConnectionGenes();
+        for (int i = 0; i < connections.size(); i++) {
+            ConnectionGene connection = connections.get(i);
+            deltas.add(MutationDelta.addConnection(
+                    connection.getInnovationNumber(),
+                    connection.getInNode().getId(),
+                    connection.getOutNode().getId(),
+                    genome.getConnectionWeight(i),
+                    connection.isRecurrent()
+            ));
+        }
+        record(genome.getID(), generation, new int[0], deltas);
+    }
+
+    public void record(Genome genome, int generation) {
+        record(genome.getID(), generation, genome.getParentIds(), genome.getMutationDeltas());
+        genome.clearMutationDeltas();
+    }
+
+    public void record(int genomeId, int generation, int[] parentIds, List<MutationDelta> deltas) {
+        try {
+            offsets.put(genomeId, out.size());
+            out.writeInt(genomeId);
+            out.writeInt(generation);
+            out.writeByte(parentIds.length);
+            for (int parentId : parentIds) {
+                out.writeInt(parentId);
+            }
+            out.writeInt(deltas.size());
+            for (MutationDelta delta : deltas) {
+                writeDelta(delta);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeDelta(MutationDelta delta) throws IOException {
+        out.writeByte(delta.getDeltaType().ordinal());
+        switch (delta.getDeltaType()) {
+            case WEIGHT:
+                out.writeInt(delta.getInnovationNumber());
+                out.writeDouble(delta.getWeight());
+                break;
+            case ADD_CONNECTION:
+                out.writeInt(delta.getInnovationNumber());
+                out.writeInt(delta.getInNodeId());
+                out.writeInt(delta.getOutNodeId());
+                out.writeDouble(delta.getWeight());
+                out.writeBoolean(delta.isRecurrent());
+                break;
+            case ADD_NODE:
+                out.writeInt(delta.getNodeId());
+                out.writeInt(delta.getInnovationNumber());
+                out.writeInt(delta.getInInnovationNumber());
+                out.writeInt(delta.getOutInnovationNumber());
+                break;
+            case ENABLE:
+                out.writeInt(delta.getInnovationNumber());
+                out.writeBoolean(delta.isEnabled());
+                break;
+        }
+    }
+
+    public LineageRecord getRecord(int genomeId) {
+        Integer offset = offsets.get(genomeId);
+        if (offset == null) {
+            return null;
+        }
+        if (snapshot.length < buffer.size()) {
+            snapshot = buffer.toByteArray();
+        }
+        try {
+            DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(snapshot, offset, snapshot.length - offset));
+            return readRecord(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static LineageRecord readRecord(DataInputStream in) throws IOException {
+        int genomeId = in.readInt();
+        int generation = in.readInt();
+        int[] parentIds = new int[in.readUnsignedByte()];
+        for (int i = 0; i < parentIds.length; i++) {
+            parentIds[i] = in.readInt();
+        }
+        int deltaCount = in.readInt();
+        ArrayList<MutationDelta> deltas = new ArrayList<>(deltaCount);
+        for (int i = 0; i < deltaCount; i++) {
+            deltas.add(readDelta(in));
+        }
+        return new LineageRecord(genomeId, generation, parentIds, deltas);
+    }
+
+    private static MutationDelta readDelta(DataInputStream in) throws IOException {
+        DeltaType deltaType = DELTA_TYPES[in.readUnsignedByte()];
+        switch (deltaType) {
+            case WEIGHT:
+                return MutationDelta.weight(in.readInt(), in.readDouble());
+            case ADD_CONNECTION: {
+                int innovationNumber = in.readInt();
+                int inNodeId = in.readInt();
+                int outNodeId = in.readInt();
+                double weight = in.readDouble();
+                return MutationDelta.addConnection(innovationNumber, inNodeId, outNodeId, weight, in.readBoolean());
+            }
+            case ADD_NODE: {
+                int nodeId = in.readInt();
+                int splitInnovationNumber = in.readInt();
+                int inInnovationNumber = in.readInt();
+                return MutationDelta.addNode(nodeId, splitInnovationNumber, inInnovationNumber, in.readInt());
+            }
+            case ENABLE:
+                return MutationDelta.enable(in.readInt(), in.readBoolean());
+            default:
+                throw new IOException("Unknown delta type: " + deltaType);
+        }
+    }
+
+    public boolean contains(int genomeId) {
+        return offsets.containsKey(genomeId);
+    }
+
+    public int[] getParentIds(int genomeId) {
+        LineageRecord record = getRecord(genomeId);
+        return record != null ? record.getParentIds() : new int[0];
+    }
+
+    public List<Integer> getLineage(int genomeId) {
+        ArrayList<Integer> lineage = new ArrayList<>();
+        Set<Integer> visited = new HashSet<>();
+        Integer current = genomeId;
+        while (current != null && visited.add(current) && contains(current)) {
+            lineage.add(current);
+            int[] parentIds = getParentIds(current);
+            current = parentIds.length > 0 ? parentIds[0] : null;
+        }
+        return lineage;
+    }
+
+    public Set<Integer> getAncestors(int genomeId) {
+        Set<Integer> ancestors = new LinkedHashSet<>();
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        stack.push(genomeId);
+        while (!stack.isEmpty()) {
+            for (int parentId : getParentIds(stack.pop())) {
+                if (ancestors.add(parentId)) {
+                    stack.push(parentId);
+                }
+            }
+        }
+        return ancestors;
+    }
+
+    public int size() {
+        return offsets.size();
+    }
+
+    public int getSizeInBytes() {
+        return out.size();
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(outputStream);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeInt(VERSION);
+        dataOut.writeInt(out.size());
+        buffer.writeTo(dataOut);
+        dataOut.flush();
+    }
+
+    public static LineageLog readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a lineage log");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported lineage log version: " + version);
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+
+        LineageLog log = new LineageLog();
+        log.out.write(bytes);
+        DataInputStream records = new DataInputStream(new ByteArrayInputStream(bytes));
+        int offset = 0;
+        while (offset < bytes.length) {
+            LineageRecord record = readRecord(records);
+            log.offsets.put(record.getGenomeId(), offset);
+            offset = bytes.length - records.available();
+        }
+        return log;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.joshuadamian.neat.util.trackers.lineage;
+
+import java.util.List;
+
+public class LineageRecord {
+
+    private int genomeId;
+    private int generation;
+    private int[] parentIds;
+    private List<MutationDelta> deltas;
+
+    public LineageRecord(int genomeId, int generation, int[] parentIds, List<MutationDelta> deltas) {
+        this.genomeId = genomeId;
+        this.generation = generation;
+        this.parentIds = parentIds;
+        this.deltas = deltas;
+    }
+
+    public int getGenomeId() {
+        return genomeId;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int[] getParentIds() {
+        return parentIds;
+    }
+
+    public List<MutationDelta> getDeltas() {
+        return deltas;
+    }
+
+    public boolean isCrossover() {
+        return parentIds.length > 1;
+    }
+}
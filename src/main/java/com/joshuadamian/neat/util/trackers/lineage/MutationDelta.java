@@ -0,0 +1,99 @@
+package com.joshuadamian.neat.util.trackers.lineage;
+
+public class MutationDelta {
+
+    private DeltaType deltaType;
+    private int innovationNumber;
+    private int nodeId;
+    private int inNodeId;
+    private int outNodeId;
+    private double weight;
+    private boolean flag;
+
+    private MutationDelta(DeltaType deltaType, int innovationNumber, int nodeId, int inNodeId, int outNodeId,
+                          double weight, boolean flag) {
+        this.deltaType = deltaType;
+        this.innovationNumber = innovationNumber;
+        this.nodeId = nodeId;
+        this.inNodeId = inNodeId;
+        this.outNodeId = outNodeId;
+        this.weight = weight;
+        this.flag = flag;
+    }
+
+    public static MutationDelta weight(int innovationNumber, double weight) {
+        return new MutationDelta(DeltaType.WEIGHT, innovationNumber, -1, -1, -1, weight, false);
+    }
+
+    public static MutationDelta addConnection(int innovationNumber, int inNodeId, int outNodeId, double weight,
+                                              boolean recurrent) {
+        return new MutationDelta(DeltaType.ADD_CONNECTION, innovationNumber, -1, inNodeId, outNodeId, weight, recurrent);
+    }
+
+    public static MutationDelta addNode(int nodeId, int splitInnovationNumber, int inInnovationNumber,
+                                        int outInnovationNumber) {
+        return new MutationDelta(DeltaType.ADD_NODE, splitInnovationNumber, nodeId, inInnovationNumber,
+                outInnovationNumber, 0, false);
+    }
+
+    public static MutationDelta enable(int innovationNumber, boolean enabled) {
+        return new MutationDelta(DeltaType.ENABLE, innovationNumber, -1, -1, -1, 0, enabled);
+    }
+
+    public DeltaType getDeltaType() {
+        return deltaType;
+    }
+
+    public int getInnovationNumber() {
+        return innovationNumber;
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public int getInNodeId() {
+        return inNodeId;
+    }
+
+    public int getOutNodeId() {
+        return outNodeId;
+    }
+
+    public int getInInnovationNumber() {
+        return inNodeId;
+    }
+
+    public int getOutInnovationNumber() {
+        return outNodeId;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public boolean isRecurrent() {
+        return flag;
+    }
+
+    public boolean isEnabled() {
+        return flag;
+    }
+
+    @Override
+    public String toString() {
+        switch (deltaType) {
+            case WEIGHT:
+                return "WEIGHT " + innovationNumber + " = " + weight;
+            case ADD_CONNECTION:
+                return "ADD_CONNECTION " + innovationNumber + " " + inNodeId + " -> " + outNodeId
+                        + (flag ? " recurrent" : "");
+            case ADD_NODE:
+                return "ADD_NODE " + nodeId + " splitting " + innovationNumber;
+            case ENABLE:
+                return "ENABLE " + innovationNumber + " = " + flag;
+            default:
+                return deltaType.toString();
+        }
+    }
+}
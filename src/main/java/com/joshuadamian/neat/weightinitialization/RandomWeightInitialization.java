@@ -1,6 +1,7 @@
 package com.joshuadamian.neat.weightinitialization;
 
 import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomWeightInitialization implements WeightInitialization {
     private double min;
@@ -18,6 +19,11 @@ public class RandomWeightInitialization implements WeightInitialization {
         return min + (max - min) * random.nextDouble();
     }
 
+    @Override
+    public double initializeWeight(SplittableRandom random) {
+        return min + (max - min) * random.nextDouble();
+    }
+
     @Override
     public double[] initializeWeights(int size) {
         double[] weights = new double[size];
@@ -26,4 +32,14 @@ public class RandomWeightInitialization implements WeightInitialization {
         }
         return weights;
     }
+
+    @Override
+    public double[] initializeWeights(int size, SplittableRandom random) {
+        double[] weights = new double[size];
+        double range = max - min;
+        for (int i = 0; i < size; i++) {
+            weights[i] = min + range * random.nextDouble();
+        }
+        return weights;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,23 @@
 package com.joshuadamian.neat.weightinitialization;
 
+import java.util.SplittableRandom;
+
+// The library only draws weights through the SplittableRandom overloads. Their defaults fall back to the no-arg
+// methods, which ignore the stream, so a strategy that draws random weights has to override them to keep runs
+// with the same seed reproducible.
 public interface WeightInitialization {
     double initializeWeight();
     double[] initializeWeights(int size);
+
+    default double initializeWeight(SplittableRandom random) {
+        return initializeWeight();
+    }
+
+    default double[] initializeWeights(int size, SplittableRandom random) {
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = initializeWeight(random);
+        }
+        return weights;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.joshuadamian.neat.weightinitialization;
 
+import java.util.SplittableRandom;
+
 public class ZeroWeightInitialization implements WeightInitialization {
 
     @Override
@@ -11,4 +13,9 @@ public class ZeroWeightInitialization implements WeightInitialization {
     public double[] initializeWeights(int size) {
         return new double[size]; // All elements are initialized to 0 by default
     }
+
+    @Override
+    public double[] initializeWeights(int size, SplittableRandom random) {
+        return new double[size];
+    }
 }
\ No newline at end of file